@@ -0,0 +1,141 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.config;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CompactCacheSerializer;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CptecCacheTtl;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cache do Redis com um nível local (Caffeine) na frente dos caches mais lidos do CPTEC.
+ * Alterações feitas por uma instância são anunciadas via pub/sub do Redis para que as
+ * demais descartem a cópia local. Previsões expiram na virada do dia da sua atualização;
+ * cidades e a última previsão válida têm TTLs fixos.
+ */
+@Configuration
+@Slf4j
+public class CacheConfig {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+
+    // Identifica as mensagens desta instância, ignoradas ao recebê-las de volta
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${worker.cache.serialization:cbor}")
+    private String serialization;
+
+    @Value("${worker.cache.ttl.forecast-max:12h}")
+    private Duration forecastMaxTtl;
+
+    @Value("${worker.cache.ttl.forecast-min:15m}")
+    private Duration forecastMinTtl;
+
+    @Value("${worker.cache.ttl.city:30d}")
+    private Duration cityTtl;
+
+    @Value("${worker.cache.ttl.stale-forecast:7d}")
+    private Duration staleForecastTtl;
+
+    @Value("${worker.cache.ttl.default:1h}")
+    private Duration defaultTtl;
+
+    @Value("${worker.cache.near.enabled:true}")
+    private boolean nearCacheEnabled;
+
+    @Value("${worker.cache.near.caches:previsaoCache,cityCache,ondasCache}")
+    private Set<String> nearCacheNames;
+
+    @Value("${worker.cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${worker.cache.near.ttl-seconds:60}")
+    private long nearCacheTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            ResourceLoader resourceLoader,
+            RedisTemplate<String, String> stringRedisTemplate,
+            MeterRegistry registry
+    ) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig(resourceLoader.getClassLoader());
+        if ("cbor".equalsIgnoreCase(serialization)) {
+            // Continua lendo entradas antigas em serialização Java
+            defaults = defaults.serializeValuesWith(RedisSerializationContext.SerializationPair
+                    .fromSerializer(new CompactCacheSerializer(resourceLoader.getClassLoader())));
+        }
+
+        CptecCacheTtl forecastTtl = new CptecCacheTtl(forecastMaxTtl, forecastMinTtl);
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults.entryTtl(defaultTtl))
+                .withInitialCacheConfigurations(Map.of(
+                        "previsaoCache", defaults.entryTtl(forecastTtl),
+                        "ondasCache", defaults.entryTtl(forecastTtl),
+                        "cityCache", defaults.entryTtl(cityTtl),
+                        "previsaoStaleCache", defaults.entryTtl(staleForecastTtl)
+                ))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        if (!nearCacheEnabled) {
+            return redisCacheManager;
+        }
+
+        log.info("🗄️ Cache local habilitado para {} (máx. {} entradas, TTL {}s)",
+                nearCacheNames, nearCacheMaximumSize, nearCacheTtlSeconds);
+        return new TwoTierCacheManager(redisCacheManager, nearCacheNames, nearCacheMaximumSize,
+                Duration.ofSeconds(nearCacheTtlSeconds),
+                (cacheName, key) -> publishInvalidation(stringRedisTemplate, cacheName, key),
+                registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "worker.cache.near.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            // Formato: instância \n cache \n chave (vazia quando o cache inteiro foi limpo)
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+            if (parts.length < 3 || instanceId.equals(parts[0])) {
+                return;
+            }
+            if (cacheManager instanceof TwoTierCacheManager twoTier) {
+                twoTier.invalidateLocal(parts[1], parts[2].isEmpty() ? null : parts[2]);
+            }
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    private void publishInvalidation(RedisTemplate<String, String> redisTemplate, String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    instanceId + "\n" + cacheName + "\n" + (key != null ? key : ""));
+        } catch (Exception e) {
+            // As cópias locais das outras instâncias expiram pelo TTL do L1
+            log.warn("⚠️ Não foi possível publicar a invalidação de {}:{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,73 @@
 package com.mercadolibre.itarc.climatehub_ms_notification_worker.config;
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
 public class RabbitMQConfig {
     public static final String NOTIFICATION_QUEUE = "notification-processing-queue";
+    public static final String SSE_NOTIFICATION_QUEUE = "sse-notification-queue";
+    public static final String NOTIFICATION_STATUS_QUEUE = "notification-status-queue";
+
+    @Value("${worker.listener.concurrency:2}")
+    private int concurrency;
+
+    @Value("${worker.listener.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${worker.listener.prefetch:50}")
+    private int prefetch;
+
+    @Value("${worker.listener.scaling.consecutive-active-trigger:10}")
+    private int consecutiveActiveTrigger;
+
+    @Value("${worker.listener.scaling.consecutive-idle-trigger:10}")
+    private int consecutiveIdleTrigger;
+
+    @Value("${worker.listener.scaling.start-consumer-min-interval-ms:10000}")
+    private long startConsumerMinIntervalMs;
+
+    @Value("${worker.listener.scaling.stop-consumer-min-interval-ms:60000}")
+    private long stopConsumerMinIntervalMs;
+
+    @Value("${worker.listener.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${worker.listener.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${worker.listener.batch.size:100}")
+    private int batchSize;
+
+    @Value("${worker.listener.batch.receive-timeout-ms:500}")
+    private long batchReceiveTimeoutMs;
 
     @Bean
     public Queue cityQueue() {
         return new Queue(NOTIFICATION_QUEUE, true);
     }
 
+    // Declarada também pelo ms-notification; garante que as publicações confirmadas não voltem sem fila
+    @Bean
+    public Queue sseNotificationQueue() {
+        return new Queue(SSE_NOTIFICATION_QUEUE, true);
+    }
+
+    // Eventos de status consumidos em lote pelo ms-notification
+    @Bean
+    public Queue notificationStatusQueue() {
+        return new Queue(NOTIFICATION_STATUS_QUEUE, true);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -27,6 +77,8 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        // Mensagens sem fila de destino voltam ao produtor (publisher-returns) em vez de serem descartadas
+        template.setMandatory(true);
         return template;
     }
 
@@ -35,6 +87,30 @@ public class RabbitMQConfig {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(jsonMessageConverter());
+
+        // Começa com concurrency consumidores e sobe até max-concurrency enquanto a fila tem mensagens
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(prefetch);
+        factory.setConsecutiveActiveTrigger(consecutiveActiveTrigger);
+        factory.setConsecutiveIdleTrigger(consecutiveIdleTrigger);
+        factory.setStartConsumerMinInterval(startConsumerMinIntervalMs);
+        factory.setStopConsumerMinInterval(stopConsumerMinIntervalMs);
+        if (virtualThreads) {
+            // Cada consumidor roda numa virtual thread: I/O bloqueante (CPTEC, banco, Feign) não prende threads da plataforma
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("notification-listener-"));
+        }
+
+        if (batchEnabled) {
+            // Entrega até batch-size mensagens por vez, ou o que chegou até receive-timeout-ms sem novas mensagens;
+            // o listener em lote confirma cada mensagem individualmente
+            factory.setBatchListener(true);
+            factory.setConsumerBatchEnabled(true);
+            factory.setBatchSize(batchSize);
+            factory.setReceiveTimeout(batchReceiveTimeoutMs);
+            factory.setPrefetchCount(Math.max(prefetch, batchSize));
+            factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        }
         return factory;
     }
 }
@@ -0,0 +1,14 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.constants;
+
+public enum CatchUpPolicy {
+    DELIVER,    // Envia com atraso, respeitando a taxa de drenagem
+    SKIP;       // Descarta a execução atrasada e segue para a próxima
+
+    public static CatchUpPolicy fromString(String policy) {
+        try {
+            return CatchUpPolicy.valueOf(policy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid catch-up policy: " + policy);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mercadolibre.itarc.climatehub_ms_notification_worker.constants;
 
 public enum ScheduleStatus {
     ACTIVE,
+    CLAIMED,
     COMPLETED,
     ERROR
 }
@@ -0,0 +1,35 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.controller;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.CacheEvictionDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CacheEvictionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Endpoints administrativos do worker; só registrados com {@code worker.admin.enabled=true}.
+ */
+@RestController
+@RequestMapping("/admin/cache")
+@ConditionalOnProperty(name = "worker.admin.enabled", havingValue = "true")
+@Slf4j
+public class CacheAdminController {
+    private final CacheEvictionService cacheEvictionService;
+
+    public CacheAdminController(CacheEvictionService cacheEvictionService) {
+        this.cacheEvictionService = cacheEvictionService;
+    }
+
+    @DeleteMapping("/cities/{cityId}")
+    public ResponseEntity<CacheEvictionDTO> evictCity(
+            @PathVariable Integer cityId,
+            @RequestParam(defaultValue = "false") boolean includeStale) {
+        return ResponseEntity.ok(new CacheEvictionDTO(cacheEvictionService.evictCity(cityId, includeStale)));
+    }
+
+    @DeleteMapping("/cities")
+    public ResponseEntity<CacheEvictionDTO> evictCityName(@RequestParam String name, @RequestParam String uf) {
+        return ResponseEntity.ok(new CacheEvictionDTO(cacheEvictionService.evictCityName(name, uf)));
+    }
+}
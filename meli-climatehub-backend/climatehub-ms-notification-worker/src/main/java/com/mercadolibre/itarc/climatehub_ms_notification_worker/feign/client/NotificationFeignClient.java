@@ -1,6 +1,7 @@
 package com.mercadolibre.itarc.climatehub_ms_notification_worker.feign.client;
 
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
 import java.util.UUID;
 
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationDTO;
@@ -22,4 +24,7 @@ public interface NotificationFeignClient {
 
     @PutMapping("/notification/{notificationId}/status")
     void updateStatus(@PathVariable UUID notificationId, @RequestBody NotificationStatusDTO status);
+
+    @PutMapping("/notification/status")
+    void updateStatuses(@RequestBody List<NotificationStatusUpdateDTO> updates);
 }
\ No newline at end of file
@@ -1,68 +1,66 @@
 package com.mercadolibre.itarc.climatehub_ms_notification_worker.job;
 
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.feign.client.NotificationFeignClient;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusDTO;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.WeatherNotificationDTO;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.producer.NotificationSSEProducer;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CptecService;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.RedisOptOutService;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.TokenEncryptionUtil;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.TokenRefreshService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CatchUpService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.DispatchMetrics;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.NotificationDispatchService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.NotificationDispatchService.DispatchSummary;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.ScheduleClaimService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.WorkerMembershipService;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
+import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.PersistJobDataAfterExecution;
+import org.quartz.SchedulerException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.*;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @Slf4j
 @DisallowConcurrentExecution
 @PersistJobDataAfterExecution
 public class NotificationProcessorJob implements Job {
 
-    private static final String LOCK_KEY_PREFIX = "notification:lock:";
-    private static final String PROCESSED_KEY_PREFIX = "notification:processed:";
-    private static final long LOCK_DURATION = 5; // minutos
-    private static final long PROCESSED_DURATION = 60; // 1 hora
-    private static final long TOLERANCE_SECONDS = 2; // reduzido para 2 segundos
+    // Presente apenas nos jobs particionados: identifica o membro do anel dono da partição
+    public static final String MEMBER_ID_KEY = "memberId";
+
+    private static final long TOLERANCE_SECONDS = NotificationDispatchService.TOLERANCE_SECONDS;
     private static final ZoneId SAO_PAULO_ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID KEYSET_START_ID = new UUID(0L, 0L);
 
 
     @Autowired
     private ScheduleRepository scheduleRepository;
 
     @Autowired
-    private CptecService cptecService;
-
-    @Autowired
-    private RedisTemplate<String, String> redisTemplate;
+    private NotificationDispatchService notificationDispatchService;
 
     @Autowired
-    private RedisOptOutService redisOptOutService;
+    private WorkerMembershipService workerMembershipService;
 
     @Autowired
-    private NotificationFeignClient notificationClient;
+    private ScheduleClaimService scheduleClaimService;
 
     @Autowired
-    private NotificationSSEProducer notificationSSEProducer;
+    private CatchUpService catchUpService;
 
     @Autowired
-    private TokenEncryptionUtil tokenEncryptionUtil;
+    private DispatchMetrics metrics;
 
-    @Autowired
-    private TokenRefreshService tokenRefreshService;
+    @Value("${worker.dispatch.page-size:500}")
+    private int pageSize;
 
     @Override
     public void execute(JobExecutionContext context) {
@@ -87,259 +85,93 @@ public class NotificationProcessorJob implements Job {
             log.debug("🔍 Equivalente a {} e {} (SP)", spStartTime, spEndTime);
         }
 
-        // Busca notificações no intervalo com tolerância
-        List<ScheduleEntity> pendingNotifications = scheduleRepository
-            .findPendingNotificationsWithTolerance(startTime, endTime, utcNow);
-        
-        if (log.isDebugEnabled()) {
-            log.debug("📋 Encontradas {} notificações pendentes", pendingNotifications.size());
-        }
-        
-        for (ScheduleEntity schedule : pendingNotifications) {
-            String lockKey = LOCK_KEY_PREFIX + schedule.getId();
-            String processedKey = PROCESSED_KEY_PREFIX + schedule.getId() + ":" + 
-                utcNow.truncatedTo(ChronoUnit.HOURS).toString();
-            
-            // Verifica se já foi processado nesta hora
-            if (Boolean.TRUE.equals(redisTemplate.hasKey(processedKey))) {
-                if (log.isDebugEnabled()) {
-                    log.debug("⏭️ Notificação {} já foi processada nesta hora", schedule.getId());
-                }
-                continue;
-            }
-            
-            if (log.isDebugEnabled()) {
-                log.debug("🔒 Tentando obter lock para notificação {} ({})", schedule.getId(), schedule.getNextExecution());
+        JobDataMap jobDataMap = context.getMergedJobDataMap();
+        String memberId = jobDataMap != null ? jobDataMap.getString(MEMBER_ID_KEY) : null;
+        if (memberId != null && !workerMembershipService.isMember(memberId)) {
+            if (workerMembershipService.isLiveMember(memberId)) {
+                // O anel local ainda não viu o membro (só é atualizado no heartbeat); fica para a próxima execução
+                log.debug("⏳ Membro {} ainda não está no anel local, execução adiada", memberId);
+                return;
             }
+            // O membro saiu do anel (heartbeat expirado no Redis); seus slots já foram redistribuídos
+            log.info("🧹 Removendo job de partição do membro inativo {}", memberId);
+            deleteJob(context);
+            return;
+        }
 
-            Boolean acquired = redisTemplate.opsForValue()
-                    .setIfAbsent(lockKey, "locked", LOCK_DURATION, TimeUnit.MINUTES);
-
-            if (Boolean.TRUE.equals(acquired)) {
-                try {
-                    if (log.isDebugEnabled()) {
-                        log.debug("✅ Lock obtido para notificação {}", schedule.getId());
-                    }
-                    if(!redisOptOutService.isOptOut(schedule.getUserId())) {
-                        processNotification(schedule);
-                        // Marca como processado nesta hora
-                        redisTemplate.opsForValue()
-                            .set(processedKey, "processed", PROCESSED_DURATION, TimeUnit.SECONDS);
-                    }
-                } catch (Exception e) {
-                    log.error("❌ Erro ao processar notificação {}: {}", schedule.getId(), e.getMessage(), e);
-                    handleError(schedule);
-                } finally {
-                    redisTemplate.delete(lockKey);
-                    if (log.isDebugEnabled()) {
-                        log.debug("🔓 Lock liberado para notificação {}", schedule.getId());
-                    }
-                }
-            } else if (log.isDebugEnabled()) {
-                log.debug("⏭️ Notificação {} já está sendo processada por outra instância", schedule.getId());
-            }
+        if (scheduleClaimService.isEnabled()) {
+            // Reivindicação no banco: cada agendamento vencido é processado por um único worker
+            logSummary(context, scheduleClaimService.drainDue(endTime, utcNow), startTime, utcNow);
+            return;
         }
-    }
 
-    private void processNotification(ScheduleEntity schedule) {
-        // Obtém o horário atual em UTC
-        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
-        
-        // Converte o horário agendado para UTC
-        ZonedDateTime nextExecUtc = schedule.getNextExecution().atZone(ZoneOffset.UTC);
-        ZonedDateTime nextExecSp = nextExecUtc.withZoneSameInstant(SAO_PAULO_ZONE);
-        
-        // Para agendamentos do tipo ONCE, verifica se está dentro da tolerância
-        if (schedule.getScheduleType() == ScheduleType.ONCE) {
-            long diffSeconds = Math.abs(ChronoUnit.SECONDS.between(utcNow, schedule.getNextExecution()));
-            if (diffSeconds > TOLERANCE_SECONDS) {
-                if (log.isDebugEnabled()) {
-                    log.debug("⏳ Ainda não chegou o horário de execução para a notificação ONCE: {} (Agendada para: {} UTC / {} SP, Diferença: {} segundos)", 
-                        schedule.getId(),
-                        nextExecUtc,
-                        nextExecSp,
-                        diffSeconds);
-                }
-                return;
-            }
-        } else {
-            // Para outros tipos de agendamento, mantém a verificação original
-            if (utcNow.isBefore(schedule.getNextExecution()) && 
-                ChronoUnit.SECONDS.between(utcNow, schedule.getNextExecution()) > 1) {
-                if (log.isDebugEnabled()) {
-                    log.debug("⏳ Ainda não chegou o horário de execução para a notificação: {} (Agendada para: {} UTC / {} SP)", 
-                        schedule.getId(),
-                        nextExecUtc,
-                        nextExecSp);
-                }
+        Set<Integer> slots = null;
+        boolean includeUnassigned = false;
+        if (memberId != null) {
+            slots = workerMembershipService.slotsOf(memberId);
+            includeUnassigned = workerMembershipService.ownsUnassigned(memberId);
+            if (slots.isEmpty() && !includeUnassigned) {
                 return;
             }
+            slots = slots.isEmpty() ? Set.of(-1) : slots;
         }
 
-        try {
-            // Busca previsão do tempo
-            PrevisaoCache previsao = cptecService.getPrevisao(Integer.valueOf(schedule.getCityId()));
-
-            if (previsao.getPrevisoes() == null || previsao.getPrevisoes().isEmpty()) {
-                throw new RuntimeException("Nenhuma previsão encontrada para a cidade " + schedule.getCityName());
-            }
-
-            PrevisaoCache.PrevisaoDia previsaoHoje = previsao.getPrevisoes().get(0);
-
-            // Log principal da previsão do tempo
-            log.info("🌤️ Previsão do tempo para {} - {}: {}", 
-                    schedule.getCityName(), 
-                    schedule.getUf(),
-                    previsaoHoje);
-
-            // Envia a notificação para a fila SSE
-            WeatherNotificationDTO weatherNotification = WeatherNotificationDTO.builder()
-                    .userId(schedule.getUserId())
-                    .notificationId(schedule.getNotificationId())
-                    .cityName(schedule.getCityName())
-                    .uf(schedule.getUf())
-                    .date(LocalDate.parse(previsaoHoje.getDia()))
-                    .minTemp(previsaoHoje.getMinima())
-                    .maxTemp(previsaoHoje.getMaxima())
-                    .message(String.format(
-                            "Previsão do tempo para %s - %s em %s: Temperatura mínima: %.1f°C, Temperatura máxima: %.1f°C",
-                            schedule.getCityName(),
-                            schedule.getUf(),
-                            previsaoHoje.getDia(),
-                            (double) previsaoHoje.getMinima(),
-                            (double) previsaoHoje.getMaxima()))
-                    .build();
-
-            // Descriptografa o token antes de enviar
-            String encryptedToken = schedule.getAuthToken();
-            String decryptedToken = encryptedToken != null ? tokenEncryptionUtil.decrypt(encryptedToken) : null;
-            
-            // Verifica se precisa renovar o token
-            if (decryptedToken != null && tokenRefreshService.isTokenExpired(decryptedToken)) {
-                // Renova o token
-                String newToken = tokenRefreshService.refreshToken(decryptedToken);
-                // Criptografa o novo token
-                String newEncryptedToken = tokenEncryptionUtil.encrypt(newToken);
-                // Atualiza o token no banco de dados
-                schedule.setAuthToken(newEncryptedToken);
-                scheduleRepository.save(schedule);
-                // Usa o novo token para enviar a notificação
-                decryptedToken = newToken;
+        // Consome as notificações pendentes página a página, sem materializar o backlog inteiro
+        LocalDateTime afterNextExecution = KEYSET_START;
+        UUID afterId = KEYSET_START_ID;
+        DispatchSummary summary = DispatchSummary.EMPTY;
+        List<ScheduleEntity> page;
+        do {
+            page = metrics.time(DispatchMetrics.Phase.QUERY,
+                fetchPage(endTime, utcNow, slots, includeUnassigned, afterNextExecution, afterId));
+            if (page.isEmpty()) {
+                break;
             }
-            
-            // Envia para fila SSE usando o token (renovado ou não)
-            notificationSSEProducer.sendToProcess(weatherNotification, decryptedToken);
-            
-            // Atualiza o status da notificação
-            NotificationStatusDTO statusDTO = NotificationStatusDTO.builder()
-                    .status(NotificationStatus.EXECUTED)
-                    .message("Notificação enviada com sucesso")
-                    .build();
 
-            notificationClient.updateStatus(schedule.getNotificationId(), statusDTO);
+            // Guarda o cursor antes do envio, que altera o nextExecution dos agendamentos
+            ScheduleEntity last = page.get(page.size() - 1);
+            afterNextExecution = last.getNextExecution();
+            afterId = last.getId();
 
-            // Para agendamentos do tipo ONCE, marca como completado após enviar a previsão
-            if (schedule.getScheduleType() == ScheduleType.ONCE) {
-                schedule.setStatus(ScheduleStatus.COMPLETED);
-                if (log.isDebugEnabled()) {
-                    log.debug("✨ Agendamento único completado após envio da previsão");
-                }
-                scheduleRepository.save(schedule);
-                return;
-            }
+            summary = summary.merge(notificationDispatchService.dispatch(page, utcNow));
+        } while (page.size() == pageSize);
 
-            // Atualiza próxima execução
-            updateNextExecution(schedule);
-        } catch (Exception e) {
-            log.error("❌ Erro ao processar notificação: {}", e.getMessage());
-            NotificationStatusDTO errorStatus = NotificationStatusDTO.builder()
-                    .status(NotificationStatus.FAILED)
-                    .message("Erro ao obter previsão do tempo: " + e.getMessage())
-                    .build();
-            notificationClient.updateStatus(schedule.getNotificationId(), errorStatus);
-        }
+        logSummary(context, summary, startTime, utcNow);
     }
 
-    private void updateNextExecution(ScheduleEntity schedule) {
-        // Obtém o horário atual em UTC
-        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
-        ZonedDateTime spNow = utcNow.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE);
-        LocalDateTime nextExecution = null;
-
-        if (log.isDebugEnabled()) {
-            log.debug("🔄 Atualizando próxima execução para {} - {} (Tipo: {})", 
-                schedule.getCityName(), 
-                schedule.getUf(),
-                schedule.getScheduleType());
+    private Supplier<List<ScheduleEntity>> fetchPage(LocalDateTime endTime, LocalDateTime utcNow,
+                                                     Set<Integer> slots, boolean includeUnassigned,
+                                                     LocalDateTime afterNextExecution, UUID afterId) {
+        Pageable pageable = PageRequest.of(0, pageSize);
+        if (slots == null) {
+            return () -> scheduleRepository.findDueSchedulesAfter(endTime, utcNow, afterNextExecution, afterId, pageable);
         }
+        return () -> scheduleRepository.findDueSchedulesInSlotsAfter(
+            endTime, utcNow, slots, includeUnassigned, afterNextExecution, afterId, pageable);
+    }
 
-        switch (schedule.getScheduleType()) {
-            case ONCE:
-                // Não faz nada aqui, pois já foi tratado no processNotification
-                break;
-
-            case DAILY:
-                // Converte o horário agendado para UTC
-                LocalDateTime spTime = LocalDateTime.of(spNow.toLocalDate(), schedule.getScheduleTime());
-                ZonedDateTime spZoned = spTime.atZone(SAO_PAULO_ZONE);
-                
-                // Garante que a próxima execução será sempre no futuro
-                while (spZoned.toLocalDateTime().isBefore(spNow.toLocalDateTime()) || 
-                       spZoned.toLocalDateTime().equals(spNow.toLocalDateTime())) {
-                    spZoned = spZoned.plusDays(1);
-                }
-                
-                // Converte para UTC
-                nextExecution = spZoned.withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
-                if (log.isDebugEnabled()) {
-                    log.debug("📅 Próxima execução diária agendada para: {} (UTC) / {} (SP)", 
-                        nextExecution,
-                        nextExecution.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE));
-                }
-                break;
-
-            case WEEKLY:
-                // Converte o horário agendado para UTC
-                spTime = LocalDateTime.of(spNow.toLocalDate(), schedule.getScheduleTime());
-                spZoned = spTime.atZone(SAO_PAULO_ZONE).with(schedule.getDayOfWeek());
-                
-                // Garante que a próxima execução será sempre no futuro
-                while (spZoned.toLocalDateTime().isBefore(spNow.toLocalDateTime()) || 
-                       spZoned.toLocalDateTime().equals(spNow.toLocalDateTime())) {
-                    spZoned = spZoned.plusWeeks(1);
-                }
-                
-                // Converte para UTC
-                nextExecution = spZoned.withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
-                if (log.isDebugEnabled()) {
-                    log.debug("📅 Próxima execução semanal agendada para: {} (UTC) / {} (SP)", 
-                        nextExecution,
-                        nextExecution.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE));
-                }
-                break;
-            default:
-                break;
+    private void logSummary(JobExecutionContext context, DispatchSummary summary,
+                            LocalDateTime startTime, LocalDateTime utcNow) {
+        // Disponível para listeners do Quartz como resultado da execução
+        context.setResult(summary);
+        if (summary.schedules() > 0) {
+            log.info("📊 {} notificações processadas para {} cidades distintas",
+                summary.schedules(), summary.cityIds().size());
         }
 
-        if (schedule.getEndDate() != null && utcNow.isAfter(schedule.getEndDate())) {
-            schedule.setStatus(ScheduleStatus.COMPLETED);
-            if (log.isDebugEnabled()) {
-                log.debug("🏁 Agendamento finalizado por atingir a data limite");
-            }
-        } else if (nextExecution != null) {
-            schedule.setNextExecution(nextExecution);
-            if (log.isDebugEnabled()) {
-                log.debug("⏰ Próxima execução atualizada para: {} (UTC) / {} (SP)", 
-                    nextExecution,
-                    nextExecution.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE));
-            }
+        // Andamento da drenagem do backlog atrasado
+        if (catchUpService.isEnabled() && summary.lateDelivered() + summary.skipped() + summary.deferred() > 0) {
+            log.info("⏩ Catch-up: {} enviadas com atraso, {} descartadas, {} adiadas; {} agendamentos ainda atrasados",
+                summary.lateDelivered(), summary.skipped(), summary.deferred(),
+                scheduleRepository.countOverdueSchedules(startTime, utcNow));
         }
-
-        scheduleRepository.save(schedule);
     }
 
-    private void handleError(ScheduleEntity schedule) {
-        schedule.setStatus(ScheduleStatus.ERROR);
-        scheduleRepository.save(schedule);
+    private void deleteJob(JobExecutionContext context) {
+        try {
+            context.getScheduler().deleteJob(context.getJobDetail().getKey());
+        } catch (SchedulerException e) {
+            log.warn("⚠️ Não foi possível remover o job {}: {}", context.getJobDetail().getKey(), e.getMessage());
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,261 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.CityRequestDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CptecService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.NotificationStatusReporter;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.ScheduleTimingWheelService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.TokenEncryptionUtil;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Variante em lote do {@link NotificationWorkerListener}, ativada por {@code worker.listener.batch.enabled}.
+ * Cada lote resolve as cidades distintas uma única vez, grava os agendamentos num único {@code saveAll},
+ * confirma (ou rejeita) cada mensagem individualmente e só então envia os status numa só chamada ao
+ * ms-notification. Pedidos reentregues cuja notificação já tem agendamento são confirmados sem gravar outro.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "worker.listener.batch.enabled", havingValue = "true")
+public class NotificationWorkerBatchListener {
+
+    private final CptecService cptecService;
+    private final ScheduleRepository scheduleRepository;
+    private final NotificationStatusReporter notificationStatusReporter;
+    private final TokenEncryptionUtil tokenEncryptionUtil;
+    private final ScheduleTimingWheelService scheduleTimingWheelService;
+    private final ObjectMapper objectMapper;
+
+    public NotificationWorkerBatchListener(
+            CptecService cptecService,
+            ScheduleRepository scheduleRepository,
+            NotificationStatusReporter notificationStatusReporter,
+            TokenEncryptionUtil tokenEncryptionUtil,
+            ScheduleTimingWheelService scheduleTimingWheelService,
+            ObjectMapper objectMapper
+    ) {
+        this.cptecService = cptecService;
+        this.scheduleRepository = scheduleRepository;
+        this.notificationStatusReporter = notificationStatusReporter;
+        this.tokenEncryptionUtil = tokenEncryptionUtil;
+        this.scheduleTimingWheelService = scheduleTimingWheelService;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE)
+    public void receive(List<Message> messages, Channel channel) throws IOException {
+        log.debug("Recebido lote de {} pedidos de agendamento", messages.size());
+
+        List<Pending> pending = new ArrayList<>(messages.size());
+        List<NotificationStatusUpdateDTO> statuses = new ArrayList<>(messages.size());
+        List<Long> rejected = new ArrayList<>();
+
+        for (Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                CityRequestDTO request = objectMapper.readValue(message.getBody(), CityRequestDTO.class);
+                pending.add(new Pending(request, NotificationWorkerListener.extractToken(message), deliveryTag));
+            } catch (Exception e) {
+                // Sem o pedido não há notificação a atualizar
+                log.error("Mensagem inválida descartada: {}", e.getMessage());
+                rejected.add(deliveryTag);
+            }
+        }
+
+        List<Long> acked = new ArrayList<>(pending.size());
+        Set<UUID> created = findCreated(pending);
+        List<Pending> fresh = new ArrayList<>(pending.size());
+        for (Pending item : pending) {
+            UUID notificationId = item.request().getNotificationId();
+            if (notificationId != null && !created.add(notificationId)) {
+                // Reentrega (ou pedido repetido no lote) de uma notificação que já tem agendamento
+                log.warn("⚠️ Agendamento da notificação {} já existe, confirmando sem duplicar", notificationId);
+                statuses.add(executed(item.request()));
+                acked.add(item.deliveryTag());
+                continue;
+            }
+            fresh.add(item);
+        }
+
+        Map<String, CompletableFuture<CityCache>> cities = resolveCities(fresh);
+
+        Map<Pending, ScheduleEntity> schedules = new LinkedHashMap<>();
+        for (Pending item : fresh) {
+            CityRequestDTO request = item.request();
+            try {
+                CityCache cityInfo = join(cities.get(cityKey(request)));
+                if (cityInfo == null) {
+                    log.error("Cidade não encontrada: {} - {}", request.getCityName(), request.getUf());
+                    statuses.add(failed(request, "Cidade não encontrada"));
+                    rejected.add(item.deliveryTag());
+                    continue;
+                }
+
+                ScheduleEntity schedule = NotificationWorkerListener.createSchedule(request, cityInfo);
+                if (item.token() != null) {
+                    schedule.setAuthToken(tokenEncryptionUtil.encrypt(item.token()));
+                }
+                schedules.put(item, schedule);
+            } catch (Exception e) {
+                log.error("Erro ao processar mensagem: {}", e.getMessage(), e);
+                statuses.add(failed(request, e.getMessage()));
+                rejected.add(item.deliveryTag());
+            }
+        }
+
+        for (Map.Entry<Pending, ScheduleEntity> saved : save(schedules).entrySet()) {
+            Pending item = saved.getKey();
+            if (saved.getValue() == null) {
+                statuses.add(failed(item.request(), "Erro ao salvar o agendamento"));
+                rejected.add(item.deliveryTag());
+                continue;
+            }
+
+            // Agendamentos que vencem dentro do horizonte já carregado entram direto na roda de tempo
+            scheduleTimingWheelService.offer(saved.getValue());
+            statuses.add(executed(item.request()));
+            acked.add(item.deliveryTag());
+        }
+
+        // Confirma antes de reportar: uma falha no envio dos status não pode fazer o broker
+        // reentregar mensagens cujos agendamentos já foram gravados
+        for (Long deliveryTag : acked) {
+            channel.basicAck(deliveryTag, false);
+        }
+        for (Long deliveryTag : rejected) {
+            channel.basicNack(deliveryTag, false, false);
+        }
+
+        try {
+            notificationStatusReporter.report(statuses);
+        } catch (Exception e) {
+            log.error("Erro ao enviar {} status do lote ao ms-notification: {}", statuses.size(), e.getMessage(), e);
+        }
+
+        log.info("📥 Lote de {} pedidos: {} agendamentos criados, {} rejeitados",
+                messages.size(), acked.size(), rejected.size());
+    }
+
+    /**
+     * Notificações do lote que já têm agendamento gravado; o conjunto devolvido é mutável.
+     */
+    private Set<UUID> findCreated(List<Pending> pending) {
+        List<UUID> notificationIds = pending.stream()
+                .map(item -> item.request().getNotificationId())
+                .filter(Objects::nonNull)
+                .toList();
+        if (notificationIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(scheduleRepository.findNotificationIdsIn(notificationIds));
+    }
+
+    /**
+     * Dispara a busca de cada cidade distinta do lote uma única vez; as buscas correm em paralelo.
+     */
+    private Map<String, CompletableFuture<CityCache>> resolveCities(List<Pending> pending) {
+        Map<String, CompletableFuture<CityCache>> lookups = new HashMap<>();
+        for (Pending item : pending) {
+            CityRequestDTO request = item.request();
+            lookups.computeIfAbsent(cityKey(request), key -> {
+                try {
+                    return cptecService.getCityIdAsync(request.getCityName(), request.getUf());
+                } catch (Exception e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            });
+        }
+        return lookups;
+    }
+
+    private static CityCache join(CompletableFuture<CityCache> lookup) throws Exception {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Grava o lote numa única transação; se ela falhar, grava um a um para isolar o agendamento com problema.
+     * Agendamentos que não puderam ser gravados ficam com valor {@code null}.
+     */
+    private Map<Pending, ScheduleEntity> save(Map<Pending, ScheduleEntity> schedules) {
+        if (schedules.isEmpty()) {
+            return schedules;
+        }
+
+        try {
+            scheduleRepository.saveAll(schedules.values());
+            return schedules;
+        } catch (Exception e) {
+            log.warn("⚠️ Falha ao gravar o lote de {} agendamentos, gravando individualmente: {}",
+                    schedules.size(), e.getMessage());
+        }
+
+        Map<Pending, ScheduleEntity> saved = new LinkedHashMap<>();
+        schedules.forEach((item, schedule) -> {
+            try {
+                schedule.setId(null);
+                saved.put(item, scheduleRepository.save(schedule));
+            } catch (Exception e) {
+                log.error("Erro ao salvar o agendamento da notificação {}: {}",
+                        item.request().getNotificationId(), e.getMessage(), e);
+                saved.put(item, null);
+            }
+        });
+        return saved;
+    }
+
+    private static NotificationStatusUpdateDTO executed(CityRequestDTO request) {
+        return NotificationStatusUpdateDTO.builder()
+                .notificationId(request.getNotificationId())
+                .status(NotificationStatus.EXECUTED)
+                .message("Agendamento criado com sucesso")
+                .build();
+    }
+
+    private static NotificationStatusUpdateDTO failed(CityRequestDTO request, String message) {
+        return NotificationStatusUpdateDTO.builder()
+                .notificationId(request.getNotificationId())
+                .status(NotificationStatus.FAILED)
+                .message(message)
+                .build();
+    }
+
+    private static String cityKey(CityRequestDTO request) {
+        return String.valueOf(request.getCityName()).toLowerCase(Locale.ROOT)
+                + "-" + String.valueOf(request.getUf()).toUpperCase(Locale.ROOT);
+    }
+
+    private record Pending(CityRequestDTO request, String token, long deliveryTag) {
+    }
+}
@@ -3,43 +3,48 @@ package com.mercadolibre.itarc.climatehub_ms_notification_worker.listener;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.feign.client.NotificationFeignClient;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.CityRequestDTO;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusDTO;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CptecService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.NotificationStatusReporter;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.ScheduleTimingWheelService;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.TokenEncryptionUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.time.*;
 
 @Component
 @Slf4j
+@ConditionalOnProperty(name = "worker.listener.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class NotificationWorkerListener {
     private static final ZoneId SAO_PAULO_ZONE = ZoneId.of("America/Sao_Paulo");
     
     private final CptecService cptecService;
     private final ScheduleRepository scheduleRepository;
-    private final NotificationFeignClient notificationClient;
+    private final NotificationStatusReporter notificationStatusReporter;
     private final TokenEncryptionUtil tokenEncryptionUtil;
+    private final ScheduleTimingWheelService scheduleTimingWheelService;
 
     public NotificationWorkerListener(
             CptecService cptecService,
             ScheduleRepository scheduleRepository,
-            NotificationFeignClient notificationClient,
-            TokenEncryptionUtil tokenEncryptionUtil
+            NotificationStatusReporter notificationStatusReporter,
+            TokenEncryptionUtil tokenEncryptionUtil,
+            ScheduleTimingWheelService scheduleTimingWheelService
     ) {
         this.cptecService = cptecService;
         this.scheduleRepository = scheduleRepository;
-        this.notificationClient = notificationClient;
+        this.notificationStatusReporter = notificationStatusReporter;
         this.tokenEncryptionUtil = tokenEncryptionUtil;
+        this.scheduleTimingWheelService = scheduleTimingWheelService;
     }
 
     @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE)
@@ -53,11 +58,8 @@ public class NotificationWorkerListener {
             CityCache cityInfo = cptecService.getCityId(request.getCityName(), request.getUf());
             if (cityInfo == null) {
                 log.error("Cidade não encontrada: {} - {}", request.getCityName(), request.getUf());
-                notificationClient.updateStatus(request.getNotificationId(), 
-                    NotificationStatusDTO.builder()
-                        .status(NotificationStatus.FAILED)
-                        .message("Cidade não encontrada")
-                        .build());
+                notificationStatusReporter.report(request.getNotificationId(),
+                        NotificationStatus.FAILED, "Cidade não encontrada");
                 throw new AmqpRejectAndDontRequeueException("Cidade não encontrada");
             }
 
@@ -69,26 +71,21 @@ public class NotificationWorkerListener {
             }
             scheduleRepository.save(schedule);
 
-            // Atualiza o status da notificação
-            NotificationStatusDTO statusDTO = NotificationStatusDTO.builder()
-                    .status(NotificationStatus.EXECUTED)
-                    .message("Agendamento criado com sucesso")
-                    .build();
+            // Agendamentos que vencem dentro do horizonte já carregado entram direto na roda de tempo
+            scheduleTimingWheelService.offer(schedule);
 
-            notificationClient.updateStatus(request.getNotificationId(), statusDTO);
+            // Atualiza o status da notificação
+            notificationStatusReporter.report(request.getNotificationId(),
+                    NotificationStatus.EXECUTED, "Agendamento criado com sucesso");
 
         } catch (Exception e) {
             log.error("Erro ao processar mensagem: {}", e.getMessage(), e);
-            notificationClient.updateStatus(request.getNotificationId(), 
-                NotificationStatusDTO.builder()
-                    .status(NotificationStatus.FAILED)
-                    .message(e.getMessage())
-                    .build());
+            notificationStatusReporter.report(request.getNotificationId(), NotificationStatus.FAILED, e.getMessage());
             throw new AmqpRejectAndDontRequeueException("Erro ao processar mensagem", e);
         }
     }
 
-    private String extractToken(Message message) {
+    static String extractToken(Message message) {
         MessageProperties properties = message.getMessageProperties();
         if (properties != null && properties.getHeaders().containsKey("Authorization")) {
             return properties.getHeaders().get("Authorization").toString();
@@ -96,7 +93,7 @@ public class NotificationWorkerListener {
         return null;
     }
 
-    private ScheduleEntity createSchedule(CityRequestDTO request, CityCache cityInfo) {
+    static ScheduleEntity createSchedule(CityRequestDTO request, CityCache cityInfo) {
         LocalDateTime nextExecution;
         LocalTime scheduleTime = null;
 
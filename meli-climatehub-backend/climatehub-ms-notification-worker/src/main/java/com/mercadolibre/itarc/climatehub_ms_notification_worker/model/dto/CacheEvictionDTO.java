@@ -0,0 +1,17 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEvictionDTO {
+    // Entradas removidas, no formato cache:chave
+    private List<String> evicted;
+}
@@ -14,12 +14,19 @@ import java.time.LocalTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "schedules")
+@Table(name = "schedules", indexes = {
+    @Index(name = "idx_schedules_status_next_execution", columnList = "status, nextExecution"),
+    @Index(name = "idx_schedules_partition_slot", columnList = "partitionSlot"),
+    @Index(name = "idx_schedules_notification_id", columnList = "notificationId")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ScheduleEntity {
+    // Quantidade fixa de slots distribuídos entre os workers pelo anel de hash consistente
+    public static final int PARTITION_SLOTS = 256;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -62,5 +69,27 @@ public class ScheduleEntity {
 
     @Column(length = 1000)
     private String authToken;
+
+    @Column
+    private Integer partitionSlot;
+
+    // Instância que reivindicou o agendamento e até quando (UTC) a reivindicação vale
+    @Column(length = 100)
+    private String claimedBy;
+
+    @Column
+    private LocalDateTime leaseExpiresAt;
+
+    @PrePersist
+    void assignPartitionSlot() {
+        // O id só é gerado no insert; o notificationId é único por agendamento e já está disponível
+        if (partitionSlot == null && notificationId != null) {
+            partitionSlot = partitionSlotOf(notificationId);
+        }
+    }
+
+    public static int partitionSlotOf(UUID key) {
+        return Math.floorMod(key.hashCode(), PARTITION_SLOTS);
+    }
 }
 
@@ -18,6 +18,13 @@ public class PrevisaoCache implements Serializable {
     private String atualizacao;
     private List<PrevisaoDia> previsoes;
 
+    // Última previsão válida servida enquanto o CPTEC está indisponível
+    private boolean stale;
+
+    public PrevisaoCache asStale() {
+        return new PrevisaoCache(nome, uf, atualizacao, previsoes, true);
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
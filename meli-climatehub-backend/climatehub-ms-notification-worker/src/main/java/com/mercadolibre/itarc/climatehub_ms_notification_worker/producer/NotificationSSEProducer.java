@@ -1,36 +1,184 @@
 package com.mercadolibre.itarc.climatehub_ms_notification_worker.producer;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.WeatherNotificationDTO;
 
+import jakarta.annotation.PreDestroy;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publica as notificações na fila SSE com publisher confirms, sem esperar cada confirmação.
+ * O número de mensagens aguardando confirmação é limitado por {@code worker.sse-publish.max-in-flight};
+ * mensagens recusadas pelo broker (nack) são republicadas até {@code max-retries} vezes.
+ */
 @Component
+@Slf4j
 public class NotificationSSEProducer {
     private final RabbitTemplate rabbitTemplate;
     private final MessageConverter messageConverter;
 
-    private static final String SSE_NOTIFICATION_QUEUE = "sse-notification-queue";
+    private final Semaphore window;
+    private final int maxInFlight;
+    private final int maxRetries;
+    private final long confirmTimeoutMs;
+    private final Executor retryExecutor;
+    private final ExecutorService retryThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer confirmLatency;
+    private final Counter confirmed;
+    private final Counter retried;
+    private final Counter failed;
 
     public NotificationSSEProducer(
         RabbitTemplate rabbitTemplate,
-        MessageConverter messageConverter
+        MessageConverter messageConverter,
+        MeterRegistry meterRegistry,
+        @Value("${worker.sse-publish.max-in-flight:256}") int maxInFlight,
+        @Value("${worker.sse-publish.max-retries:3}") int maxRetries,
+        @Value("${worker.sse-publish.retry-backoff-ms:200}") long retryBackoffMs,
+        @Value("${worker.sse-publish.confirm-timeout-ms:10000}") long confirmTimeoutMs
     ) {
         this.rabbitTemplate = rabbitTemplate;
         this.messageConverter = messageConverter;
+        this.window = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.maxRetries = maxRetries;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        // Republica fora da thread do broker: o callback de confirmação não pode ficar esperando vaga na janela
+        this.retryExecutor = CompletableFuture.delayedExecutor(retryBackoffMs, TimeUnit.MILLISECONDS, retryThreads);
+
+        this.confirmLatency = Timer.builder("notification.sse.confirm.latency")
+                .description("Tempo entre a publicação na fila SSE e a confirmação do broker")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("notification.sse.outstanding", window, w -> maxInFlight - w.availablePermits())
+                .description("Mensagens publicadas na fila SSE aguardando confirmação")
+                .register(meterRegistry);
+        this.confirmed = publishCounter(meterRegistry, "confirmed");
+        this.retried = publishCounter(meterRegistry, "retried");
+        this.failed = publishCounter(meterRegistry, "failed");
     }
 
-    public void sendToProcess(WeatherNotificationDTO request, String token) {
+    /**
+     * Publica a notificação e retorna assim que ela entra na janela de confirmações.
+     * @return completado quando o broker confirma a mensagem; falha com {@link AmqpException}
+     *         se ela for recusada após as tentativas, devolvida sem fila ou não confirmada a tempo
+     */
+    public CompletableFuture<Void> sendToProcess(WeatherNotificationDTO request, String token) {
         MessageProperties properties = new MessageProperties();
         if (token != null) {
             properties.setHeader("Authorization", token);
         }
 
         Message message = messageConverter.toMessage(request, properties);
-        rabbitTemplate.send(SSE_NOTIFICATION_QUEUE, message);
-        System.out.println("📤 Enviado para fila: " + request);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        publish(message, result, 0);
+        if (log.isDebugEnabled()) {
+            log.debug("📤 Enviado para fila: {}", request.getNotificationId());
+        }
+        return result.orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void publish(Message message, CompletableFuture<Void> result, int attempt) {
+        try {
+            if (!window.tryAcquire(confirmTimeoutMs, TimeUnit.MILLISECONDS)) {
+                failed.increment();
+                result.completeExceptionally(new AmqpException(
+                        "Janela de confirmações cheia (" + maxInFlight + " mensagens pendentes)"));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new AmqpException("Publicação interrompida", e));
+            return;
+        }
+
+        // A vaga é devolvida uma única vez, seja pela confirmação ou pela falha no envio
+        AtomicBoolean released = new AtomicBoolean();
+        CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+        long start = System.nanoTime();
+
+        // Prazo esgotado sem confirmação: devolve a vaga para a janela não encolher de vez
+        result.whenComplete((ignored, error) -> {
+            if (error instanceof TimeoutException && released.compareAndSet(false, true)) {
+                window.release();
+            }
+        });
+
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            window.release();
+            confirmLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            ReturnedMessage returned = correlation.getReturned();
+            if (error == null && confirm.isAck() && returned == null) {
+                confirmed.increment();
+                result.complete(null);
+                return;
+            }
+
+            // Mensagem devolvida não tem fila de destino: republicar não adianta
+            if (returned == null && attempt < maxRetries && !result.isDone()) {
+                retried.increment();
+                log.warn("⚠️ Publicação na fila SSE não confirmada ({}), tentativa {} de {}",
+                        error != null ? error.getMessage() : confirm.getReason(), attempt + 1, maxRetries);
+                retryExecutor.execute(() -> publish(message, result, attempt + 1));
+                return;
+            }
+
+            failed.increment();
+            String reason = returned != null
+                    ? "mensagem devolvida pelo broker: " + returned.getReplyText()
+                    : error != null ? error.getMessage() : confirm.getReason();
+            result.completeExceptionally(new AmqpException("Publicação na fila SSE não confirmada: " + reason));
+        });
+
+        try {
+            rabbitTemplate.send("", RabbitMQConfig.SSE_NOTIFICATION_QUEUE, message, correlation);
+        } catch (AmqpException e) {
+            if (released.compareAndSet(false, true)) {
+                window.release();
+            }
+            failed.increment();
+            result.completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retryThreads.shutdownNow();
+    }
+
+    private static Counter publishCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.sse.publish")
+                .description("Publicações na fila SSE, por desfecho da confirmação")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 }
@@ -1,23 +1,168 @@
 package com.mercadolibre.itarc.climatehub_ms_notification_worker.repository;
 
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-public interface ScheduleRepository extends JpaRepository<ScheduleEntity, UUID> {
+public interface ScheduleRepository extends JpaRepository<ScheduleEntity, UUID>, ScheduleRepositoryCustom {
     @Query(
         " SELECT s FROM ScheduleEntity s WHERE s.status = 'ACTIVE' " +
-        "   AND (s.nextExecution BETWEEN :startTime AND :endTime   " +
-        "    OR s.nextExecution <= :now)                           " +
-        "   AND (s.endDate IS NULL OR s.endDate > :now)            " 
+        "   AND s.nextExecution > :from                            " +
+        "   AND s.nextExecution <= :to                             " +
+        "   AND (s.endDate IS NULL OR s.endDate > :now)            "
     )
-    List<ScheduleEntity> findPendingNotificationsWithTolerance(
-            @Param("startTime") LocalDateTime startTime,
-            @Param("endTime") LocalDateTime endTime,
+    List<ScheduleEntity> findActiveSchedulesDueBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now);
+
+    @Query(
+        " SELECT s FROM ScheduleEntity s WHERE s.status = 'ACTIVE' " +
+        "   AND s.nextExecution > :from                            " +
+        "   AND s.nextExecution <= :to                             " +
+        "   AND (s.endDate IS NULL OR s.endDate > :now)            " +
+        "   AND (s.partitionSlot IN :slots                         " +
+        "    OR (:includeUnassigned = true AND s.partitionSlot IS NULL)) "
+    )
+    List<ScheduleEntity> findActiveSchedulesDueBetweenInSlots(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now,
+            @Param("slots") Collection<Integer> slots,
+            @Param("includeUnassigned") boolean includeUnassigned);
+
+    // Notificações que já têm agendamento, para não duplicar pedidos reentregues pelo broker
+    @Query("SELECT s.notificationId FROM ScheduleEntity s WHERE s.notificationId IN :notificationIds")
+    List<UUID> findNotificationIdsIn(@Param("notificationIds") Collection<UUID> notificationIds);
+
+    @Query(
+        " SELECT DISTINCT s.cityId FROM ScheduleEntity s WHERE s.status = 'ACTIVE' " +
+        "   AND s.nextExecution <= :to                                        " +
+        "   AND (s.endDate IS NULL OR s.endDate > :now)                       "
+    )
+    List<String> findCityIdsDueBefore(
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now);
+
+    @Query(
+        " SELECT DISTINCT s.cityId FROM ScheduleEntity s WHERE s.status = 'ACTIVE' " +
+        "   AND s.nextExecution <= :to                                        " +
+        "   AND (s.endDate IS NULL OR s.endDate > :now)                       " +
+        "   AND (s.partitionSlot IN :slots                                    " +
+        "    OR (:includeUnassigned = true AND s.partitionSlot IS NULL))      "
+    )
+    List<String> findCityIdsDueBeforeInSlots(
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now,
+            @Param("slots") Collection<Integer> slots,
+            @Param("includeUnassigned") boolean includeUnassigned);
+
+    @Query(
+        " SELECT COUNT(s) FROM ScheduleEntity s WHERE s.status = 'ACTIVE' " +
+        "   AND s.nextExecution < :before                                 " +
+        "   AND (s.endDate IS NULL OR s.endDate > :now)                   "
+    )
+    long countOverdueSchedules(
+            @Param("before") LocalDateTime before,
             @Param("now") LocalDateTime now);
-}
\ No newline at end of file
+
+    // Paginação por keyset em (nextExecution, id): cada página começa após o último item da anterior
+    @Query(
+        " SELECT s FROM ScheduleEntity s WHERE s.status = 'ACTIVE'  " +
+        "   AND s.nextExecution <= :endTime                         " +
+        "   AND (s.endDate IS NULL OR s.endDate > :now)             " +
+        "   AND (s.nextExecution > :afterNextExecution              " +
+        "    OR (s.nextExecution = :afterNextExecution AND s.id > :afterId)) " +
+        " ORDER BY s.nextExecution, s.id                            "
+    )
+    List<ScheduleEntity> findDueSchedulesAfter(
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now,
+            @Param("afterNextExecution") LocalDateTime afterNextExecution,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    @Query(
+        " SELECT s FROM ScheduleEntity s WHERE s.status = 'ACTIVE'  " +
+        "   AND s.nextExecution <= :endTime                         " +
+        "   AND (s.endDate IS NULL OR s.endDate > :now)             " +
+        "   AND (s.partitionSlot IN :slots                          " +
+        "    OR (:includeUnassigned = true AND s.partitionSlot IS NULL)) " +
+        "   AND (s.nextExecution > :afterNextExecution              " +
+        "    OR (s.nextExecution = :afterNextExecution AND s.id > :afterId)) " +
+        " ORDER BY s.nextExecution, s.id                            "
+    )
+    List<ScheduleEntity> findDueSchedulesInSlotsAfter(
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now,
+            @Param("slots") Collection<Integer> slots,
+            @Param("includeUnassigned") boolean includeUnassigned,
+            @Param("afterNextExecution") LocalDateTime afterNextExecution,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    // Reivindicação em lote (PostgreSQL): linhas travadas por outra transação são puladas
+    @Transactional
+    @Query(nativeQuery = true, value =
+        " UPDATE schedules SET status = 'CLAIMED', claimed_by = :owner, lease_expires_at = :leaseExpiresAt " +
+        "  WHERE id IN (SELECT id FROM schedules                          " +
+        "                WHERE status = 'ACTIVE'                          " +
+        "                  AND next_execution <= :endTime                 " +
+        "                  AND (end_date IS NULL OR end_date > :now)      " +
+        "                ORDER BY next_execution                          " +
+        "                LIMIT :limit                                     " +
+        "                FOR UPDATE SKIP LOCKED)                          " +
+        " RETURNING *                                                     "
+    )
+    List<ScheduleEntity> claimDueSchedules(
+            @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now,
+            @Param("owner") String owner,
+            @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+            @Param("limit") int limit);
+
+    @Transactional
+    @Query(nativeQuery = true, value =
+        " UPDATE schedules SET status = 'CLAIMED', claimed_by = :owner, lease_expires_at = :leaseExpiresAt " +
+        "  WHERE id IN (SELECT id FROM schedules                          " +
+        "                WHERE id IN (:ids)                               " +
+        "                  AND status = 'ACTIVE'                          " +
+        "                  AND (end_date IS NULL OR end_date > :now)      " +
+        "                FOR UPDATE SKIP LOCKED)                          " +
+        " RETURNING *                                                     "
+    )
+    List<ScheduleEntity> claimSchedules(
+            @Param("ids") Collection<UUID> ids,
+            @Param("now") LocalDateTime now,
+            @Param("owner") String owner,
+            @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    // Devolve ao estado ativo o que continua reivindicado e limpa o dono dos já finalizados
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value =
+        " UPDATE schedules SET status = CASE WHEN status = 'CLAIMED' THEN 'ACTIVE' ELSE status END, " +
+        "                      claimed_by = NULL, lease_expires_at = NULL " +
+        "  WHERE id IN (:ids) AND claimed_by = :owner                     "
+    )
+    int releaseClaims(
+            @Param("ids") Collection<UUID> ids,
+            @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value =
+        " UPDATE schedules SET status = 'ACTIVE', claimed_by = NULL, lease_expires_at = NULL " +
+        "  WHERE status = 'CLAIMED' AND lease_expires_at < :now           "
+    )
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.repository;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+
+import java.util.Collection;
+
+public interface ScheduleRepositoryCustom {
+
+    /**
+     * Grava próxima execução, status e token dos agendamentos num único batch JDBC,
+     * sem carregar as entidades no contexto de persistência. Linhas já finalizadas no banco
+     * ({@code COMPLETED} ou {@code ERROR}) não são alteradas.
+     * @return quantidade de agendamentos enviados no batch
+     */
+    int batchUpdateState(Collection<ScheduleEntity> schedules);
+
+    /**
+     * Preenche o slot de partição de até {@code limit} agendamentos gravados antes da existência
+     * da coluna, calculado do notificationId como no {@code @PrePersist}.
+     * @return quantidade de agendamentos atualizados
+     */
+    int backfillPartitionSlots(int limit);
+}
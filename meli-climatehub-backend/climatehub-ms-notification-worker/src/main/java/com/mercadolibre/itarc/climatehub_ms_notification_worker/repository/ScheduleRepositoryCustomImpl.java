@@ -0,0 +1,68 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.repository;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public class ScheduleRepositoryCustomImpl implements ScheduleRepositoryCustom {
+
+    // Só grava sobre linhas ainda em andamento: uma cópia desatualizada em memória (roda de tempo,
+    // outra instância) não ressuscita nem sobrescreve agendamentos já finalizados
+    private static final String UPDATE_STATE_SQL =
+        " UPDATE schedules SET next_execution = ?, status = ?, auth_token = ? " +
+        "  WHERE id = ? AND status IN ('ACTIVE', 'CLAIMED') ";
+
+    private static final String SELECT_WITHOUT_SLOT_SQL =
+        " SELECT id, notification_id FROM schedules " +
+        "  WHERE partition_slot IS NULL AND notification_id IS NOT NULL LIMIT ? ";
+
+    private static final String UPDATE_SLOT_SQL =
+        " UPDATE schedules SET partition_slot = ? WHERE id = ? AND partition_slot IS NULL ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public ScheduleRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public int batchUpdateState(Collection<ScheduleEntity> schedules) {
+        if (schedules.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_STATE_SQL, schedules, batchSize, (ps, schedule) -> {
+            ps.setObject(1, schedule.getNextExecution());
+            ps.setString(2, schedule.getStatus().name());
+            ps.setString(3, schedule.getAuthToken());
+            ps.setObject(4, schedule.getId());
+        });
+        return schedules.size();
+    }
+
+    @Override
+    @Transactional
+    public int backfillPartitionSlots(int limit) {
+        List<UUID[]> rows = jdbcTemplate.query(SELECT_WITHOUT_SLOT_SQL,
+            (rs, rowNum) -> new UUID[] { rs.getObject("id", UUID.class), rs.getObject("notification_id", UUID.class) },
+            limit);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_SLOT_SQL, rows, batchSize, (ps, row) -> {
+            ps.setInt(1, ScheduleEntity.partitionSlotOf(row[1]));
+            ps.setObject(2, row[0]);
+        });
+        return rows.size();
+    }
+}
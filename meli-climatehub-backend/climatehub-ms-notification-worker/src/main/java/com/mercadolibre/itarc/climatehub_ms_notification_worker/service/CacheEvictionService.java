@@ -0,0 +1,62 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remoção manual de entradas dos caches do CPTEC. As remoções passam pelo cache manager,
+ * então também descartam as cópias locais das outras instâncias.
+ */
+@Service
+@Slf4j
+public class CacheEvictionService {
+
+    private static final int ONDAS_DIAS = 3;
+
+    private final CacheManager cacheManager;
+
+    public CacheEvictionService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Remove a previsão do tempo e as previsões de ondas da cidade.
+     * @param includeStale também remove a última previsão válida usada quando o CPTEC está fora
+     */
+    public List<String> evictCity(Integer cityId, boolean includeStale) {
+        List<String> evicted = new ArrayList<>();
+        evict("previsaoCache", cityId, evicted);
+        for (int dia = 0; dia < ONDAS_DIAS; dia++) {
+            evict("ondasCache", cityId + "-" + dia, evicted);
+        }
+        if (includeStale) {
+            evict("previsaoStaleCache", cityId, evicted);
+        }
+
+        log.info("🧹 Cache da cidade {} removido: {}", cityId, evicted);
+        return evicted;
+    }
+
+    /**
+     * Remove o id em cache para o nome e UF informados.
+     */
+    public List<String> evictCityName(String cityName, String uf) {
+        List<String> evicted = new ArrayList<>();
+        evict("cityCache", cityName.toLowerCase() + "-" + uf.toUpperCase(), evicted);
+
+        log.info("🧹 Cache do nome de cidade {}/{} removido: {}", cityName, uf, evicted);
+        return evicted;
+    }
+
+    private void evict(String cacheName, Object key, List<String> evicted) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && cache.evictIfPresent(key)) {
+            evicted.add(cacheName + ":" + key);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.CatchUpPolicy;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.DrainRateLimiter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controla a recuperação de agendamentos atrasados (ex.: após uma janela de manutenção).
+ * Execuções atrasadas passam por uma taxa de drenagem configurável; as que estão atrasadas
+ * além do limite seguem a política do tipo de agendamento: enviar com atraso ou descartar.
+ */
+@Service
+@Slf4j
+public class CatchUpService {
+
+    public enum Decision {
+        ON_TIME,
+        DELIVER_LATE,
+        SKIP
+    }
+
+    @Value("${worker.catch-up.enabled:false}")
+    private boolean enabled;
+
+    @Value("${worker.catch-up.stale-after-minutes:60}")
+    private long staleAfterMinutes;
+
+    @Value("${worker.catch-up.drain-rate-per-second:20}")
+    private double drainRatePerSecond;
+
+    @Value("${worker.catch-up.max-drain-seconds:45}")
+    private long maxDrainSeconds;
+
+    @Value("${worker.catch-up.policy.once:deliver}")
+    private String oncePolicy;
+
+    @Value("${worker.catch-up.policy.daily:skip}")
+    private String dailyPolicy;
+
+    @Value("${worker.catch-up.policy.weekly:skip}")
+    private String weeklyPolicy;
+
+    @Value("${worker.catch-up.policy.custom:skip}")
+    private String customPolicy;
+
+    private final Map<ScheduleType, CatchUpPolicy> policies = new EnumMap<>(ScheduleType.class);
+    private DrainRateLimiter rateLimiter;
+
+    @PostConstruct
+    public void init() {
+        policies.put(ScheduleType.ONCE, CatchUpPolicy.fromString(oncePolicy));
+        policies.put(ScheduleType.DAILY, CatchUpPolicy.fromString(dailyPolicy));
+        policies.put(ScheduleType.WEEKLY, CatchUpPolicy.fromString(weeklyPolicy));
+        policies.put(ScheduleType.CUSTOM, CatchUpPolicy.fromString(customPolicy));
+        rateLimiter = new DrainRateLimiter(drainRatePerSecond);
+
+        if (enabled) {
+            log.info("⏩ Modo catch-up ativo (taxa: {}/s, atraso máximo: {} min, políticas: {})",
+                    drainRatePerSecond, staleAfterMinutes, policies);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Classifica o agendamento em relação ao horário atual.
+     * Sem o modo catch-up, tudo é tratado como pontual, mantendo o comportamento original.
+     */
+    public Decision decide(ScheduleEntity schedule, LocalDateTime utcNow) {
+        if (!enabled) {
+            return Decision.ON_TIME;
+        }
+
+        LocalDateTime nextExecution = schedule.getNextExecution();
+        if (!nextExecution.isBefore(utcNow.minusSeconds(NotificationDispatchService.TOLERANCE_SECONDS))) {
+            return Decision.ON_TIME;
+        }
+        if (nextExecution.isBefore(utcNow.minusMinutes(staleAfterMinutes))
+                && policies.get(schedule.getScheduleType()) == CatchUpPolicy.SKIP) {
+            return Decision.SKIP;
+        }
+        return Decision.DELIVER_LATE;
+    }
+
+    /**
+     * @return prazo, no relógio de {@link System#nanoTime()}, para a drenagem iniciada agora
+     */
+    public long drainDeadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(maxDrainSeconds);
+    }
+
+    /**
+     * Aguarda a vez do envio atrasado na taxa de drenagem.
+     * @return {@code false} se a vaga só existiria após o prazo; o envio fica para a próxima execução
+     */
+    public boolean acquire(long deadlineNanos) {
+        return rateLimiter.tryAcquire(deadlineNanos);
+    }
+}
@@ -0,0 +1,133 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.CidadeXml;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CityCatalogIndex;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CptecXmlParser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import javax.xml.stream.XMLStreamException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém em memória o catálogo completo de cidades do CPTEC ({@code /listaCidades} sem filtro),
+ * indexado por nome completo normalizado e UF, para que {@code getCityId} não precise ir à rede.
+ * O catálogo é carregado de um snapshot em disco ao iniciar, atualizado em seguida e periodicamente,
+ * e o snapshot é regravado a cada atualização.
+ */
+@Service
+@Slf4j
+public class CityCatalogService {
+
+    private final RestTemplate restTemplate;
+    private final CptecXmlParser cptecXmlParser;
+    private final String baseUrl;
+
+    @Value("${worker.city-catalog.enabled:false}")
+    private boolean enabled;
+
+    @Value("${worker.city-catalog.refresh-interval-hours:24}")
+    private long refreshIntervalHours;
+
+    @Value("${worker.city-catalog.snapshot-path:./data/cptec-cidades.tsv}")
+    private Path snapshotPath;
+
+    private volatile CityCatalogIndex index = CityCatalogIndex.EMPTY;
+    private ScheduledExecutorService executor;
+
+    public CityCatalogService(
+            RestTemplateBuilder restTemplateBuilder,
+            CptecXmlParser cptecXmlParser,
+            @Value("${cptec.base-url:http://servicos.cptec.inpe.br/XML}") String baseUrl
+    ) {
+        this.cptecXmlParser = cptecXmlParser;
+        this.baseUrl = baseUrl;
+        // O catálogo completo tem alguns milhares de cidades; leitura mais longa que as consultas comuns
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(10))
+                .setReadTimeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        loadSnapshot();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "city-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalHours, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return a cidade do catálogo ou {@code null} se o catálogo não estiver carregado ou não tiver a cidade
+     */
+    public CityCache find(String cityName, String uf) {
+        return index.find(cityName, uf);
+    }
+
+    public boolean isLoaded() {
+        return !index.isEmpty();
+    }
+
+    private void loadSnapshot() {
+        if (!Files.isReadable(snapshotPath)) {
+            return;
+        }
+        try {
+            index = CityCatalogIndex.readFrom(snapshotPath);
+            log.info("🗺️ Catálogo de cidades carregado do snapshot {} ({} cidades)", snapshotPath, index.size());
+        } catch (Exception e) {
+            log.warn("⚠️ Snapshot do catálogo de cidades ilegível em {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    void refresh() {
+        try {
+            List<CidadeXml> cidades = restTemplate.execute(baseUrl + "/listaCidades", HttpMethod.GET, null, response -> {
+                try {
+                    return cptecXmlParser.parseCidades(response.getBody());
+                } catch (XMLStreamException e) {
+                    throw new IllegalStateException("Erro ao parsear o catálogo de cidades do CPTEC/INPE", e);
+                }
+            });
+            if (cidades == null || cidades.isEmpty()) {
+                log.warn("⚠️ CPTEC retornou o catálogo de cidades vazio; mantendo o catálogo atual");
+                return;
+            }
+
+            CityCatalogIndex refreshed = CityCatalogIndex.of(cidades);
+            index = refreshed;
+            log.info("🗺️ Catálogo de cidades atualizado: {} cidades", refreshed.size());
+
+            refreshed.writeTo(snapshotPath);
+        } catch (Exception e) {
+            log.error("❌ Erro ao atualizar o catálogo de cidades: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.City
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface CptecService {
     CityCache getCityId(String cityName, String uf);
 
@@ -22,4 +24,20 @@ public interface CptecService {
      * @throws IllegalArgumentException se o dia não estiver entre 0 e 2
      */
     OndasCache getPrevisaoOndas(Integer cityId, Integer dia);
+
+    /**
+     * Variante assíncrona de {@link #getCityId(String, String)}, sobre o cliente HTTP com pool de conexões
+     */
+    CompletableFuture<CityCache> getCityIdAsync(String cityName, String uf);
+
+    /**
+     * Variante assíncrona de {@link #getPrevisao(Integer)}, sobre o cliente HTTP com pool de conexões.
+     * Permite sobrepor a busca de várias cidades sem ocupar uma thread do Quartz por requisição.
+     */
+    CompletableFuture<PrevisaoCache> getPrevisaoAsync(Integer cityId);
+
+    /**
+     * Busca a previsão no CPTEC ignorando o cache e atualiza a entrada de {@code previsaoCache}.
+     */
+    CompletableFuture<PrevisaoCache> refreshPrevisaoAsync(Integer cityId);
 }
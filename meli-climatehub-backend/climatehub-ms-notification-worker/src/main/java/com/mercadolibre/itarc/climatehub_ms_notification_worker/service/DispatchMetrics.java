@@ -0,0 +1,101 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Métricas do processamento de notificações, expostas em {@code /actuator/metrics}:
+ * tempo por fase do envio, atraso real de entrega e contadores por desfecho.
+ */
+@Component
+public class DispatchMetrics {
+
+    public enum Phase {
+        QUERY,
+        LOCK,
+        OPT_OUT,
+        FORECAST,
+        TOKEN,
+        SSE_PUBLISH,
+        STATUS_UPDATE,
+        SAVE
+    }
+
+    public enum Outcome {
+        SENT,
+        FAILED,
+        NOT_DUE,
+        OPTED_OUT,
+        SKIPPED,
+        DEFERRED,
+        LOCKED_ELSEWHERE,
+        ALREADY_PROCESSED
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+    private final Timer deliveryLag;
+
+    public DispatchMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("notification.dispatch.phase")
+                    .description("Tempo gasto em cada fase do envio de notificações")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("notification.dispatch.schedules")
+                    .description("Agendamentos avaliados pelo worker, por desfecho")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        deliveryLag = Timer.builder("notification.delivery.lag")
+                .description("Diferença entre o envio efetivo e o nextExecution do agendamento")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofHours(2))
+                .register(registry);
+    }
+
+    public <T> T time(Phase phase, Supplier<T> supplier) {
+        return phaseTimers.get(phase).record(supplier);
+    }
+
+    public void time(Phase phase, Runnable runnable) {
+        phaseTimers.get(phase).record(runnable);
+    }
+
+    /**
+     * Para fases assíncronas, medidas por quem completa o {@code CompletableFuture}.
+     */
+    public void record(Phase phase, Duration duration) {
+        phaseTimers.get(phase).record(duration);
+    }
+
+    public void count(Outcome outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+
+    public void count(Outcome outcome, int amount) {
+        if (amount > 0) {
+            outcomeCounters.get(outcome).increment(amount);
+        }
+    }
+
+    /**
+     * Envios adiantados dentro da tolerância contam como atraso zero.
+     */
+    public void recordDeliveryLag(LocalDateTime scheduledUtc, LocalDateTime sentUtc) {
+        Duration lag = Duration.between(scheduledUtc, sentUtc);
+        deliveryLag.record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+}
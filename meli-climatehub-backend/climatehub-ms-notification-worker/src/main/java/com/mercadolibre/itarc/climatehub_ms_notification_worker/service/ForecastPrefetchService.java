@@ -0,0 +1,213 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Atualiza antecipadamente o {@code previsaoCache} das cidades com agendamentos nos próximos
+ * minutos, para que a busca no momento do envio encontre o cache quente. Uma entrada é atualizada
+ * quando não está em cache, quando foi buscada há mais de {@code refresh-after-minutes} ou quando
+ * a data de {@code atualizacao} do CPTEC ficou para trás (o CPTEC publica uma nova previsão por dia).
+ */
+@Service
+@Slf4j
+public class ForecastPrefetchService {
+
+    private static final ZoneId SAO_PAULO_ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private final ScheduleRepository scheduleRepository;
+    private final CptecService cptecService;
+    private final CacheManager cacheManager;
+    private final WorkerMembershipService workerMembershipService;
+    private final Counter refreshed;
+    private final Counter failed;
+
+    @Value("${worker.forecast-prefetch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${worker.forecast-prefetch.lookahead-minutes:15}")
+    private long lookaheadMinutes;
+
+    @Value("${worker.forecast-prefetch.interval-seconds:60}")
+    private long intervalSeconds;
+
+    @Value("${worker.forecast-prefetch.refresh-after-minutes:30}")
+    private long refreshAfterMinutes;
+
+    @Value("${worker.forecast-prefetch.concurrency:4}")
+    private int concurrency;
+
+    // Momento (epoch ms) em que esta instância atualizou cada cidade
+    private final Map<Integer, Long> refreshedAt = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+
+    public ForecastPrefetchService(
+            ScheduleRepository scheduleRepository,
+            CptecService cptecService,
+            CacheManager cacheManager,
+            WorkerMembershipService workerMembershipService,
+            MeterRegistry registry
+    ) {
+        this.scheduleRepository = scheduleRepository;
+        this.cptecService = cptecService;
+        this.cacheManager = cacheManager;
+        this.workerMembershipService = workerMembershipService;
+        this.refreshed = Counter.builder("forecast.prefetch.refreshes")
+                .description("Previsões atualizadas antecipadamente no cache")
+                .tag("result", "success")
+                .register(registry);
+        this.failed = Counter.builder("forecast.prefetch.refreshes")
+                .description("Previsões atualizadas antecipadamente no cache")
+                .tag("result", "failure")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "forecast-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::prefetch, 0, intervalSeconds, TimeUnit.SECONDS);
+
+        log.info("🔮 Pré-busca de previsões iniciada (janela: {} min, intervalo: {}s, concorrência: {})",
+                lookaheadMinutes, intervalSeconds, concurrency);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    void prefetch() {
+        try {
+            LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+            Set<Integer> cityIds = upcomingCityIds(utcNow.plusMinutes(lookaheadMinutes), utcNow);
+            refreshedAt.keySet().retainAll(cityIds);
+
+            List<Integer> stale = cityIds.stream().filter(this::needsRefresh).toList();
+            if (stale.isEmpty()) {
+                return;
+            }
+
+            AtomicInteger failures = new AtomicInteger();
+            Semaphore permits = new Semaphore(concurrency);
+            for (Integer cityId : stale) {
+                permits.acquire();
+                CompletableFuture<PrevisaoCache> refresh;
+                try {
+                    refresh = cptecService.refreshPrevisaoAsync(cityId);
+                } catch (RuntimeException e) {
+                    // Falha síncrona segue o mesmo caminho da assíncrona, que devolve a vaga
+                    refresh = CompletableFuture.failedFuture(e);
+                }
+                refresh.whenComplete((previsao, error) -> {
+                    permits.release();
+                    if (error != null) {
+                        failures.incrementAndGet();
+                        failed.increment();
+                        log.warn("⚠️ Falha ao pré-buscar a previsão da cidade {}: {}", cityId, error.getMessage());
+                    } else {
+                        refreshedAt.put(cityId, System.currentTimeMillis());
+                        refreshed.increment();
+                    }
+                });
+            }
+            // Aguarda as últimas buscas antes do próximo ciclo
+            permits.acquire(concurrency);
+            permits.release(concurrency);
+
+            log.info("🔮 Pré-busca: {} cidades com agendamentos nos próximos {} min, {} atualizadas, {} falhas",
+                    cityIds.size(), lookaheadMinutes, stale.size() - failures.get(), failures.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("❌ Erro na pré-busca de previsões: {}", e.getMessage(), e);
+        }
+    }
+
+    private Set<Integer> upcomingCityIds(LocalDateTime to, LocalDateTime utcNow) {
+        List<String> cityIds;
+        if (!workerMembershipService.isEnabled()) {
+            cityIds = scheduleRepository.findCityIdsDueBefore(to, utcNow);
+        } else {
+            // Cada instância aquece apenas as cidades dos seus slots
+            Set<Integer> slots = workerMembershipService.ownedSlots();
+            boolean includeUnassigned = workerMembershipService.ownsUnassigned(workerMembershipService.getMemberId());
+            if (slots.isEmpty() && !includeUnassigned) {
+                return Set.of();
+            }
+            cityIds = scheduleRepository.findCityIdsDueBeforeInSlots(
+                    to, utcNow, slots.isEmpty() ? Set.of(-1) : slots, includeUnassigned);
+        }
+
+        Set<Integer> parsed = new HashSet<>();
+        for (String cityId : cityIds) {
+            try {
+                parsed.add(Integer.valueOf(cityId));
+            } catch (NumberFormatException e) {
+                log.warn("⚠️ cityId inválido ignorado na pré-busca: {}", cityId);
+            }
+        }
+        return parsed;
+    }
+
+    boolean needsRefresh(Integer cityId) {
+        Long lastRefresh = refreshedAt.get(cityId);
+        if (lastRefresh == null
+                || System.currentTimeMillis() - lastRefresh > TimeUnit.MINUTES.toMillis(refreshAfterMinutes)) {
+            return true;
+        }
+
+        Cache cache = cacheManager.getCache("previsaoCache");
+        PrevisaoCache cached = cache != null ? cache.get(cityId, PrevisaoCache.class) : null;
+        if (cached == null) {
+            return true;
+        }
+
+        // Previsão de um dia anterior buscada antes da virada: o CPTEC já deve ter publicado a de hoje
+        LocalDate today = LocalDate.now(SAO_PAULO_ZONE);
+        long startOfToday = today.atStartOfDay(SAO_PAULO_ZONE).toInstant().toEpochMilli();
+        return isOutdated(cached.getAtualizacao(), today) && lastRefresh < startOfToday;
+    }
+
+    private static boolean isOutdated(String atualizacao, LocalDate today) {
+        try {
+            return atualizacao == null || LocalDate.parse(atualizacao).isBefore(today);
+        } catch (Exception e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,674 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.WeatherNotificationDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.producer.NotificationSSEProducer;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.DispatchMetrics.Outcome;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.DispatchMetrics.Phase;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.RedisOptOutService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.RedisScheduleLockService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.TokenEncryptionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Processa os agendamentos que chegaram no horário de execução.
+ * Compartilhado entre o job do Quartz (varredura por minuto) e a roda de tempo em memória.
+ */
+@Service
+@Slf4j
+public class NotificationDispatchService {
+
+    public static final long TOLERANCE_SECONDS = 2; // reduzido para 2 segundos
+    private static final ZoneId SAO_PAULO_ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private final ScheduleRepository scheduleRepository;
+    private final CptecService cptecService;
+    private final RedisScheduleLockService redisScheduleLockService;
+    private final RedisOptOutService redisOptOutService;
+    private final NotificationSSEProducer notificationSSEProducer;
+    private final NotificationStatusReporter notificationStatusReporter;
+    private final TokenEncryptionUtil tokenEncryptionUtil;
+    private final TokenRefreshService tokenRefreshService;
+    private final CatchUpService catchUpService;
+    private final DispatchMetrics metrics;
+
+    @Value("${worker.dispatch.mode:serial}")
+    private String dispatchMode;
+
+    @Value("${worker.dispatch.concurrency:16}")
+    private int concurrency;
+
+    public NotificationDispatchService(
+            ScheduleRepository scheduleRepository,
+            CptecService cptecService,
+            RedisScheduleLockService redisScheduleLockService,
+            RedisOptOutService redisOptOutService,
+            NotificationSSEProducer notificationSSEProducer,
+            NotificationStatusReporter notificationStatusReporter,
+            TokenEncryptionUtil tokenEncryptionUtil,
+            TokenRefreshService tokenRefreshService,
+            CatchUpService catchUpService,
+            DispatchMetrics metrics
+    ) {
+        this.scheduleRepository = scheduleRepository;
+        this.cptecService = cptecService;
+        this.redisScheduleLockService = redisScheduleLockService;
+        this.redisOptOutService = redisOptOutService;
+        this.notificationSSEProducer = notificationSSEProducer;
+        this.notificationStatusReporter = notificationStatusReporter;
+        this.tokenEncryptionUtil = tokenEncryptionUtil;
+        this.tokenRefreshService = tokenRefreshService;
+        this.catchUpService = catchUpService;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Processa um lote de agendamentos, garantindo via lock no Redis que cada um
+     * seja enviado por apenas uma instância. Locks e marcadores do lote são resolvidos
+     * em uma única ida ao Redis antes do envio e em outra ao final.
+     * @param schedules agendamentos candidatos
+     * @param utcNow horário de referência (UTC) da execução
+     * @return resumo do lote processado por esta instância
+     */
+    public DispatchSummary dispatch(List<ScheduleEntity> schedules, LocalDateTime utcNow) {
+        // Um agendamento aparece no máximo uma vez por lote
+        Map<UUID, ScheduleEntity> byId = new LinkedHashMap<>();
+        schedules.forEach(schedule -> byId.putIfAbsent(schedule.getId(), schedule));
+        if (byId.isEmpty()) {
+            return DispatchSummary.EMPTY;
+        }
+
+        RedisScheduleLockService.ClaimResult claim = metrics.time(Phase.LOCK,
+                () -> redisScheduleLockService.claim(new ArrayList<>(byId.keySet()), utcNow));
+        metrics.count(Outcome.ALREADY_PROCESSED, claim.alreadyProcessed().size());
+        metrics.count(Outcome.LOCKED_ELSEWHERE, claim.lockedElsewhere().size());
+
+        if (log.isDebugEnabled()) {
+            log.debug("🔒 Locks obtidos para {} notificações ({} já processadas nesta hora, {} em outra instância)",
+                claim.claimed().size(), claim.alreadyProcessed().size(), claim.lockedElsewhere().size());
+        }
+
+        List<ScheduleEntity> claimed = claim.claimed().stream().map(byId::get).toList();
+        Set<UUID> processed = ConcurrentHashMap.newKeySet();
+        try {
+            return process(claimed, processed);
+        } finally {
+            metrics.time(Phase.LOCK, () -> redisScheduleLockService.release(claim.claimed(), processed, utcNow));
+            if (log.isDebugEnabled()) {
+                log.debug("🔓 Locks liberados para {} notificações", claim.claimed().size());
+            }
+        }
+    }
+
+    /**
+     * Processa um lote já reivindicado no banco pelo {@link ScheduleClaimService},
+     * sem passar pelos locks do Redis.
+     */
+    public DispatchSummary dispatchClaimed(List<ScheduleEntity> schedules) {
+        return dispatchClaimed(schedules, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Variante de {@link #dispatchClaimed(List)} que devolve em {@code processed} os agendamentos
+     * a marcar como processados nesta hora, para quem grava os marcadores.
+     */
+    public DispatchSummary dispatchClaimed(List<ScheduleEntity> schedules, Set<UUID> processed) {
+        if (schedules.isEmpty()) {
+            return DispatchSummary.EMPTY;
+        }
+        return process(schedules, processed);
+    }
+
+    private DispatchSummary process(List<ScheduleEntity> schedules, Set<UUID> processed) {
+        // Alterações de estado acumuladas no lote e gravadas num único batch JDBC ao final
+        Batch batch = new Batch(processed, new ConcurrentLinkedQueue<>(), ConcurrentHashMap.newKeySet(), new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>(), new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>(),
+                catchUpService.drainDeadline(), new AtomicInteger(), new AtomicInteger(), new AtomicInteger());
+        try {
+            // Opt-out, catch-up e horário decididos antes de qualquer consulta ao CPTEC
+            forEachSchedule(schedules, schedule -> decide(schedule, batch));
+            // Previsões resolvidas uma vez por cidade, só para os agendamentos que serão enviados
+            batch.forecasts().putAll(resolveForecasts(batch.deliveries()));
+            forEachSchedule(List.copyOf(batch.deliveries()), schedule -> deliver(schedule, batch));
+        } finally {
+            awaitConfirms(batch);
+            reportStatuses(batch);
+            if (!batch.pendingUpdates().isEmpty()) {
+                metrics.time(Phase.SAVE, () -> scheduleRepository.batchUpdateState(batch.pendingUpdates().values()));
+                if (log.isDebugEnabled()) {
+                    log.debug("💾 Estado de {} agendamentos gravado em lote", batch.pendingUpdates().size());
+                }
+            }
+        }
+        return new DispatchSummary(schedules.size(), Set.copyOf(batch.forecasts().keySet()),
+                batch.lateDelivered().get(), batch.skipped().get(), batch.deferred().get());
+    }
+
+    private void forEachSchedule(List<ScheduleEntity> schedules, Consumer<ScheduleEntity> action) {
+        if ("parallel".equalsIgnoreCase(dispatchMode) && schedules.size() > 1) {
+            dispatchParallel(schedules, action);
+        } else {
+            schedules.forEach(action);
+        }
+    }
+
+    /**
+     * Dispara a busca da previsão das cidades distintas dos agendamentos a enviar de uma vez, pelo
+     * cliente assíncrono do CPTEC (que limita as requisições simultâneas pelo limite adaptativo,
+     * com teto em {@code cptec.http.max-connections}), e aguarda todas.
+     * Falhas ficam registradas por cidade e são relançadas no processamento de cada agendamento dela.
+     */
+    private Map<String, CityForecast> resolveForecasts(Collection<ScheduleEntity> schedules) {
+        Set<String> cityIds = new LinkedHashSet<>();
+        schedules.forEach(schedule -> cityIds.add(schedule.getCityId()));
+
+        Map<String, CompletableFuture<PrevisaoCache>> pending = new LinkedHashMap<>();
+        for (String cityId : cityIds) {
+            long start = System.nanoTime();
+            CompletableFuture<PrevisaoCache> future;
+            try {
+                future = cptecService.getPrevisaoAsync(Integer.valueOf(cityId));
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            pending.put(cityId, future.whenComplete((previsao, error) ->
+                    metrics.record(Phase.FORECAST, Duration.ofNanos(System.nanoTime() - start))));
+        }
+
+        Map<String, CityForecast> forecasts = new HashMap<>();
+        pending.forEach((cityId, future) -> {
+            try {
+                forecasts.put(cityId, new CityForecast(future.join(), null));
+            } catch (CompletionException | CancellationException e) {
+                forecasts.put(cityId, new CityForecast(null, unwrap(e)));
+            }
+        });
+
+        if (log.isDebugEnabled()) {
+            log.debug("🏙️ Previsões resolvidas para {} cidades ({} agendamentos a enviar)", cityIds.size(), schedules.size());
+        }
+        return forecasts;
+    }
+
+    private static RuntimeException unwrap(RuntimeException e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof TimeoutException) {
+            return new IllegalStateException("Tempo esgotado ao consultar o CPTEC", cause);
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause.getMessage(), cause);
+    }
+
+    /**
+     * Processa o lote em virtual threads, limitado por {@code worker.dispatch.concurrency}.
+     * Os agendamentos são intercalados por usuário para que um usuário com muitos
+     * agendamentos não ocupe todas as permissões antes dos demais.
+     */
+    private void dispatchParallel(List<ScheduleEntity> schedules, Consumer<ScheduleEntity> action) {
+        Semaphore permits = new Semaphore(concurrency);
+
+        // close() aguarda todas as tarefas, mantendo o job ocupado até o fim do lote
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ScheduleEntity schedule : interleaveByUser(schedules)) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("⚠️ Despacho paralelo interrompido; agendamentos restantes ficam para a próxima execução");
+                    break;
+                }
+                executor.submit(() -> {
+                    try {
+                        action.accept(schedule);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private List<ScheduleEntity> interleaveByUser(List<ScheduleEntity> schedules) {
+        Map<UUID, Deque<ScheduleEntity>> byUser = new LinkedHashMap<>();
+        for (ScheduleEntity schedule : schedules) {
+            byUser.computeIfAbsent(schedule.getUserId(), k -> new ArrayDeque<>()).add(schedule);
+        }
+
+        List<ScheduleEntity> ordered = new ArrayList<>(schedules.size());
+        while (!byUser.isEmpty()) {
+            Iterator<Deque<ScheduleEntity>> iterator = byUser.values().iterator();
+            while (iterator.hasNext()) {
+                Deque<ScheduleEntity> queue = iterator.next();
+                ordered.add(queue.poll());
+                if (queue.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Decide o destino do agendamento sem consultar o CPTEC: opt-out, descarte ou adiamento do
+     * catch-up e horário ainda não alcançado. Os que serão enviados entram em {@code batch.deliveries()}.
+     */
+    private void decide(ScheduleEntity schedule, Batch batch) {
+        try {
+            if (metrics.time(Phase.OPT_OUT, () -> redisOptOutService.isOptOut(schedule.getUserId()))) {
+                metrics.count(Outcome.OPTED_OUT);
+                return;
+            }
+
+            CatchUpService.Decision decision = catchUpService.decide(schedule, LocalDateTime.now(ZoneOffset.UTC));
+            if (decision == CatchUpService.Decision.SKIP) {
+                skipStale(schedule, batch);
+                batch.skipped().incrementAndGet();
+                metrics.count(Outcome.SKIPPED);
+                batch.processed().add(schedule.getId());
+                return;
+            }
+
+            boolean late = decision == CatchUpService.Decision.DELIVER_LATE;
+            if (late && !catchUpService.acquire(batch.drainDeadline())) {
+                // Sem vaga na taxa de drenagem desta execução; fica para a próxima
+                batch.deferred().incrementAndGet();
+                metrics.count(Outcome.DEFERRED);
+                return;
+            }
+
+            if (!isDue(schedule, late)) {
+                batch.processed().add(schedule.getId());
+                return;
+            }
+            if (late) {
+                batch.late().add(schedule.getId());
+            }
+            batch.deliveries().add(schedule);
+        } catch (Exception e) {
+            log.error("❌ Erro ao processar notificação {}: {}", schedule.getId(), e.getMessage(), e);
+            metrics.count(Outcome.FAILED);
+            handleError(schedule, batch);
+        }
+    }
+
+    private void deliver(ScheduleEntity schedule, Batch batch) {
+        try {
+            boolean published = publish(schedule, batch);
+            if (batch.late().contains(schedule.getId())) {
+                batch.lateDelivered().incrementAndGet();
+            }
+            // Marca como processado nesta hora (gravado junto com a liberação dos locks);
+            // as notificações publicadas só são marcadas em awaitConfirms, depois da confirmação do broker
+            if (!published) {
+                batch.processed().add(schedule.getId());
+            }
+        } catch (Exception e) {
+            log.error("❌ Erro ao processar notificação {}: {}", schedule.getId(), e.getMessage(), e);
+            metrics.count(Outcome.FAILED);
+            handleError(schedule, batch);
+        }
+    }
+
+    /**
+     * Descarta uma execução atrasada além do limite: agendamentos únicos são encerrados
+     * e os recorrentes avançam para a próxima ocorrência sem envio.
+     */
+    private void skipStale(ScheduleEntity schedule, Batch batch) {
+        log.info("⏭️ Execução atrasada descartada para a notificação {} (Agendada para: {} UTC)",
+            schedule.getNotificationId(), schedule.getNextExecution());
+
+        if (schedule.getScheduleType() == ScheduleType.ONCE) {
+            schedule.setStatus(ScheduleStatus.COMPLETED);
+            batch.pendingUpdates().put(schedule.getId(), schedule);
+            batch.statuses().add(statusUpdate(schedule, NotificationStatus.FAILED, "Execução descartada por atraso"));
+            return;
+        }
+        updateNextExecution(schedule, batch);
+    }
+
+    /**
+     * @return {@code false} se o horário de execução ainda não chegou
+     */
+    private boolean isDue(ScheduleEntity schedule, boolean late) {
+        // Obtém o horário atual em UTC
+        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+
+        // Converte o horário agendado para UTC
+        ZonedDateTime nextExecUtc = schedule.getNextExecution().atZone(ZoneOffset.UTC);
+        ZonedDateTime nextExecSp = nextExecUtc.withZoneSameInstant(SAO_PAULO_ZONE);
+
+        // Para agendamentos do tipo ONCE, verifica se está dentro da tolerância (exceto envios atrasados do catch-up)
+        if (schedule.getScheduleType() == ScheduleType.ONCE && !late) {
+            long diffSeconds = Math.abs(ChronoUnit.SECONDS.between(utcNow, schedule.getNextExecution()));
+            if (diffSeconds > TOLERANCE_SECONDS) {
+                if (log.isDebugEnabled()) {
+                    log.debug("⏳ Ainda não chegou o horário de execução para a notificação ONCE: {} (Agendada para: {} UTC / {} SP, Diferença: {} segundos)",
+                        schedule.getId(),
+                        nextExecUtc,
+                        nextExecSp,
+                        diffSeconds);
+                }
+                metrics.count(Outcome.NOT_DUE);
+                return false;
+            }
+        } else if (schedule.getScheduleType() != ScheduleType.ONCE) {
+            // Para outros tipos de agendamento, mantém a verificação original
+            if (utcNow.isBefore(schedule.getNextExecution()) &&
+                ChronoUnit.SECONDS.between(utcNow, schedule.getNextExecution()) > 1) {
+                if (log.isDebugEnabled()) {
+                    log.debug("⏳ Ainda não chegou o horário de execução para a notificação: {} (Agendada para: {} UTC / {} SP)",
+                        schedule.getId(),
+                        nextExecUtc,
+                        nextExecSp);
+                }
+                metrics.count(Outcome.NOT_DUE);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} se a notificação foi publicada e aguarda a confirmação do broker
+     */
+    private boolean publish(ScheduleEntity schedule, Batch batch) {
+        try {
+            // Busca previsão do tempo
+            PrevisaoCache previsao = batch.forecasts().get(schedule.getCityId()).get();
+
+            if (previsao.getPrevisoes() == null || previsao.getPrevisoes().isEmpty()) {
+                throw new RuntimeException("Nenhuma previsão encontrada para a cidade " + schedule.getCityName());
+            }
+
+            PrevisaoCache.PrevisaoDia previsaoHoje = previsao.getPrevisoes().get(0);
+            if (previsao.isStale()) {
+                // Cópia de uma atualização anterior: o primeiro dia pode já ter passado
+                String hoje = LocalDate.now(SAO_PAULO_ZONE).toString();
+                previsaoHoje = previsao.getPrevisoes().stream()
+                        .filter(dia -> hoje.equals(dia.getDia()))
+                        .findFirst()
+                        .orElse(previsaoHoje);
+                log.warn("⚠️ Enviando previsão desatualizada (atualização de {}) para o agendamento {}",
+                        previsao.getAtualizacao(), schedule.getId());
+            }
+
+            // Log principal da previsão do tempo
+            log.info("🌤️ Previsão do tempo para {} - {}: {}",
+                    schedule.getCityName(),
+                    schedule.getUf(),
+                    previsaoHoje);
+
+            // Envia a notificação para a fila SSE
+            WeatherNotificationDTO weatherNotification = WeatherNotificationDTO.builder()
+                    .userId(schedule.getUserId())
+                    .notificationId(schedule.getNotificationId())
+                    .cityName(schedule.getCityName())
+                    .uf(schedule.getUf())
+                    .date(LocalDate.parse(previsaoHoje.getDia()))
+                    .minTemp(previsaoHoje.getMinima())
+                    .maxTemp(previsaoHoje.getMaxima())
+                    .message(String.format(
+                            "Previsão do tempo para %s - %s em %s: Temperatura mínima: %.1f°C, Temperatura máxima: %.1f°C",
+                            schedule.getCityName(),
+                            schedule.getUf(),
+                            previsaoHoje.getDia(),
+                            (double) previsaoHoje.getMinima(),
+                            (double) previsaoHoje.getMaxima()))
+                    .build();
+
+            String decryptedToken = metrics.time(Phase.TOKEN, () -> resolveToken(schedule, batch));
+
+            // Envia para fila SSE usando o token (renovado ou não), sem aguardar a confirmação do broker:
+            // o lote aguarda todas de uma vez ao final (awaitConfirms)
+            CompletableFuture<LocalDateTime> confirmed = metrics.time(Phase.SSE_PUBLISH,
+                    () -> notificationSSEProducer.sendToProcess(weatherNotification, decryptedToken))
+                    .thenApply(ignored -> LocalDateTime.now(ZoneOffset.UTC));
+            batch.publishes().add(new PendingPublish(schedule, confirmed));
+            return true;
+        } catch (Exception e) {
+            log.error("❌ Erro ao processar notificação: {}", e.getMessage());
+            metrics.count(Outcome.FAILED);
+            batch.statuses().add(statusUpdate(schedule, NotificationStatus.FAILED,
+                    "Erro ao obter previsão do tempo: " + e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Aguarda as confirmações do broker das notificações publicadas no lote e só então avança o estado
+     * dos agendamentos confirmados e os marca como processados. Os não confirmados ficam sem marcador
+     * e sem avançar, para serem reenviados na próxima execução.
+     */
+    private void awaitConfirms(Batch batch) {
+        if (batch.publishes().isEmpty()) {
+            return;
+        }
+
+        for (PendingPublish pending : batch.publishes()) {
+            ScheduleEntity schedule = pending.schedule();
+            try {
+                // O produtor limita a espera de cada mensagem a worker.sse-publish.confirm-timeout-ms
+                LocalDateTime confirmedAt = pending.confirmed().join();
+                metrics.recordDeliveryLag(schedule.getNextExecution(), confirmedAt);
+                metrics.count(Outcome.SENT);
+                batch.statuses().add(statusUpdate(schedule, NotificationStatus.EXECUTED, "Notificação enviada com sucesso"));
+                completeDelivery(schedule, batch);
+                batch.processed().add(schedule.getId());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                String reason = cause instanceof TimeoutException
+                        ? "confirmação do broker não recebida a tempo"
+                        : cause.getMessage();
+                log.error("❌ Erro ao enviar notificação {}: {}", schedule.getId(), reason);
+                metrics.count(Outcome.FAILED);
+                batch.statuses().add(statusUpdate(schedule, NotificationStatus.FAILED, "Erro ao enviar notificação: " + reason));
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("📨 Confirmações recebidas para {} notificações do lote", batch.publishes().size());
+        }
+    }
+
+    /**
+     * Status de todo o lote enviados de uma vez ao ms-notification (eventos na fila de status, por padrão).
+     */
+    private void reportStatuses(Batch batch) {
+        if (batch.statuses().isEmpty()) {
+            return;
+        }
+        List<NotificationStatusUpdateDTO> statuses = new ArrayList<>(batch.statuses());
+        metrics.time(Phase.STATUS_UPDATE, () -> notificationStatusReporter.report(statuses));
+    }
+
+    private void completeDelivery(ScheduleEntity schedule, Batch batch) {
+        // Para agendamentos do tipo ONCE, marca como completado após enviar a previsão
+        if (schedule.getScheduleType() == ScheduleType.ONCE) {
+            schedule.setStatus(ScheduleStatus.COMPLETED);
+            if (log.isDebugEnabled()) {
+                log.debug("✨ Agendamento único completado após envio da previsão");
+            }
+            batch.pendingUpdates().put(schedule.getId(), schedule);
+            return;
+        }
+
+        // Atualiza próxima execução
+        updateNextExecution(schedule, batch);
+    }
+
+    private static NotificationStatusUpdateDTO statusUpdate(ScheduleEntity schedule, NotificationStatus status, String message) {
+        return NotificationStatusUpdateDTO.builder()
+                .notificationId(schedule.getNotificationId())
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private String resolveToken(ScheduleEntity schedule, Batch batch) {
+        // Descriptografa o token antes de enviar
+        String encryptedToken = schedule.getAuthToken();
+        String decryptedToken = encryptedToken != null ? tokenEncryptionUtil.decrypt(encryptedToken) : null;
+
+        // Verifica se precisa renovar o token
+        if (decryptedToken != null && tokenRefreshService.isTokenExpired(decryptedToken)) {
+            // Renova o token
+            String newToken = tokenRefreshService.refreshToken(decryptedToken);
+            // Criptografa o novo token
+            String newEncryptedToken = tokenEncryptionUtil.encrypt(newToken);
+            // Atualiza o token no banco de dados
+            schedule.setAuthToken(newEncryptedToken);
+            batch.pendingUpdates().put(schedule.getId(), schedule);
+            // Usa o novo token para enviar a notificação
+            return newToken;
+        }
+        return decryptedToken;
+    }
+
+    private void updateNextExecution(ScheduleEntity schedule, Batch batch) {
+        // Obtém o horário atual em UTC
+        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+        ZonedDateTime spNow = utcNow.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE);
+        LocalDateTime nextExecution = null;
+
+        if (log.isDebugEnabled()) {
+            log.debug("🔄 Atualizando próxima execução para {} - {} (Tipo: {})",
+                schedule.getCityName(),
+                schedule.getUf(),
+                schedule.getScheduleType());
+        }
+
+        switch (schedule.getScheduleType()) {
+            case ONCE:
+                // Não faz nada aqui, pois já foi tratado no completeDelivery
+                break;
+
+            case DAILY:
+                // Converte o horário agendado para UTC
+                LocalDateTime spTime = LocalDateTime.of(spNow.toLocalDate(), schedule.getScheduleTime());
+                ZonedDateTime spZoned = spTime.atZone(SAO_PAULO_ZONE);
+
+                // Garante que a próxima execução será sempre no futuro
+                while (spZoned.toLocalDateTime().isBefore(spNow.toLocalDateTime()) ||
+                       spZoned.toLocalDateTime().equals(spNow.toLocalDateTime())) {
+                    spZoned = spZoned.plusDays(1);
+                }
+
+                // Converte para UTC
+                nextExecution = spZoned.withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+                if (log.isDebugEnabled()) {
+                    log.debug("📅 Próxima execução diária agendada para: {} (UTC) / {} (SP)",
+                        nextExecution,
+                        nextExecution.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE));
+                }
+                break;
+
+            case WEEKLY:
+                // Converte o horário agendado para UTC
+                spTime = LocalDateTime.of(spNow.toLocalDate(), schedule.getScheduleTime());
+                spZoned = spTime.atZone(SAO_PAULO_ZONE).with(schedule.getDayOfWeek());
+
+                // Garante que a próxima execução será sempre no futuro
+                while (spZoned.toLocalDateTime().isBefore(spNow.toLocalDateTime()) ||
+                       spZoned.toLocalDateTime().equals(spNow.toLocalDateTime())) {
+                    spZoned = spZoned.plusWeeks(1);
+                }
+
+                // Converte para UTC
+                nextExecution = spZoned.withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+                if (log.isDebugEnabled()) {
+                    log.debug("📅 Próxima execução semanal agendada para: {} (UTC) / {} (SP)",
+                        nextExecution,
+                        nextExecution.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE));
+                }
+                break;
+            default:
+                break;
+        }
+
+        if (schedule.getEndDate() != null && utcNow.isAfter(schedule.getEndDate())) {
+            schedule.setStatus(ScheduleStatus.COMPLETED);
+            if (log.isDebugEnabled()) {
+                log.debug("🏁 Agendamento finalizado por atingir a data limite");
+            }
+        } else if (nextExecution != null) {
+            schedule.setNextExecution(nextExecution);
+            if (log.isDebugEnabled()) {
+                log.debug("⏰ Próxima execução atualizada para: {} (UTC) / {} (SP)",
+                    nextExecution,
+                    nextExecution.atZone(ZoneOffset.UTC).withZoneSameInstant(SAO_PAULO_ZONE));
+            }
+        }
+
+        batch.pendingUpdates().put(schedule.getId(), schedule);
+    }
+
+    private void handleError(ScheduleEntity schedule, Batch batch) {
+        schedule.setStatus(ScheduleStatus.ERROR);
+        batch.pendingUpdates().put(schedule.getId(), schedule);
+    }
+
+    /**
+     * Resumo de um lote: agendamentos processados por esta instância, cidades distintas consultadas
+     * e o andamento do catch-up (enviados com atraso, descartados e adiados para a próxima execução).
+     */
+    public record DispatchSummary(int schedules, Set<String> cityIds,
+                                  int lateDelivered, int skipped, int deferred) {
+        public static final DispatchSummary EMPTY = new DispatchSummary(0, Set.of(), 0, 0, 0);
+
+        public DispatchSummary merge(DispatchSummary other) {
+            Set<String> cities = new HashSet<>(cityIds);
+            cities.addAll(other.cityIds());
+            return new DispatchSummary(schedules + other.schedules(), cities,
+                    lateDelivered + other.lateDelivered(), skipped + other.skipped(), deferred + other.deferred());
+        }
+    }
+
+    // Estado compartilhado pelas tarefas de um mesmo lote
+    private record Batch(Set<UUID> processed,
+                         Queue<ScheduleEntity> deliveries,
+                         Set<UUID> late,
+                         Map<String, CityForecast> forecasts,
+                         Map<UUID, ScheduleEntity> pendingUpdates,
+                         Queue<PendingPublish> publishes,
+                         Queue<NotificationStatusUpdateDTO> statuses,
+                         long drainDeadline,
+                         AtomicInteger lateDelivered,
+                         AtomicInteger skipped,
+                         AtomicInteger deferred) {
+    }
+
+    // Notificação publicada na fila SSE aguardando a confirmação do broker
+    private record PendingPublish(ScheduleEntity schedule, CompletableFuture<LocalDateTime> confirmed) {
+    }
+
+    private record CityForecast(PrevisaoCache previsao, RuntimeException error) {
+        PrevisaoCache get() {
+            if (error != null) {
+                throw error;
+            }
+            return previsao;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.feign.client.NotificationFeignClient;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envia ao ms-notification os status das notificações.
+ * No transporte {@code queue} cada status vira um evento na notification-status-queue,
+ * consumida em lotes pelo ms-notification, sem esperar resposta: as confirmações do broker chegam
+ * em segundo plano e os eventos recusados (nack), devolvidos sem fila ou não confirmados a tempo
+ * seguem pelo Feign. No transporte {@code http} (padrão), ou se a publicação falhar, os status vão pelo Feign:
+ * numa única chamada quando há mais de um e um a um se o envio em lote falhar.
+ * <p>
+ * Só habilite {@code queue} depois que o ms-notification com o consumidor da notification-status-queue
+ * estiver no ar; antes disso os eventos ficam parados na fila sem ninguém para aplicá-los.
+ */
+@Service
+@Slf4j
+public class NotificationStatusReporter {
+
+    private final NotificationFeignClient notificationClient;
+    private final RabbitTemplate rabbitTemplate;
+    private final String transport;
+    private final long confirmTimeoutMs;
+    // O envio pelo Feign não pode rodar na thread do broker que entrega as confirmações
+    private final ExecutorService fallbackExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public NotificationStatusReporter(
+            NotificationFeignClient notificationClient,
+            RabbitTemplate rabbitTemplate,
+            @Value("${worker.status-updates.transport:http}") String transport,
+            @Value("${worker.status-updates.confirm-timeout-ms:10000}") long confirmTimeoutMs
+    ) {
+        this.notificationClient = notificationClient;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transport = transport;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    public void report(UUID notificationId, NotificationStatus status, String message) {
+        report(List.of(NotificationStatusUpdateDTO.builder()
+                .notificationId(notificationId)
+                .status(status)
+                .message(message)
+                .build()));
+    }
+
+    public void report(List<NotificationStatusUpdateDTO> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+
+        if ("queue".equalsIgnoreCase(transport)) {
+            int published = publish(statuses);
+            if (published == statuses.size()) {
+                return;
+            }
+            statuses = statuses.subList(published, statuses.size());
+        }
+        sendHttp(statuses);
+    }
+
+    /**
+     * Publica os eventos com confirmação do broker e, quando todas chegarem (ou o prazo acabar),
+     * reenvia pelo Feign os que não foram confirmados.
+     * @return quantos status foram publicados antes da primeira falha
+     */
+    private int publish(List<NotificationStatusUpdateDTO> statuses) {
+        List<PendingConfirm> pending = new ArrayList<>(statuses.size());
+        int published = statuses.size();
+        for (int i = 0; i < statuses.size(); i++) {
+            NotificationStatusUpdateDTO status = statuses.get(i);
+            CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+            try {
+                rabbitTemplate.convertAndSend("", RabbitMQConfig.NOTIFICATION_STATUS_QUEUE, status, correlation);
+            } catch (AmqpException e) {
+                log.warn("⚠️ Falha ao publicar status na fila, enviando {} via HTTP: {}",
+                        statuses.size() - i, e.getMessage());
+                published = i;
+                break;
+            }
+            pending.add(new PendingConfirm(status, correlation.getFuture().handle((confirm, error) ->
+                    error == null && confirm.isAck() && correlation.getReturned() == null)));
+        }
+
+        if (!pending.isEmpty()) {
+            CompletableFuture.allOf(pending.stream().map(PendingConfirm::confirmed).toArray(CompletableFuture[]::new))
+                    .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                    .whenCompleteAsync((ignored, timeout) -> resendUnconfirmed(pending), fallbackExecutor);
+        }
+        return published;
+    }
+
+    private void resendUnconfirmed(List<PendingConfirm> pending) {
+        // Sem confirmação até o prazo também segue pelo Feign: aplicar o mesmo status duas vezes não altera o resultado
+        List<NotificationStatusUpdateDTO> unconfirmed = pending.stream()
+                .filter(item -> !item.confirmed().isDone() || !item.confirmed().join())
+                .map(PendingConfirm::status)
+                .toList();
+        if (unconfirmed.isEmpty()) {
+            return;
+        }
+
+        log.warn("⚠️ {} eventos de status não confirmados pelo broker, enviando via HTTP", unconfirmed.size());
+        sendHttp(unconfirmed);
+    }
+
+    private void sendHttp(List<NotificationStatusUpdateDTO> statuses) {
+        if (statuses.size() > 1) {
+            try {
+                notificationClient.updateStatuses(statuses);
+                return;
+            } catch (Exception e) {
+                log.warn("⚠️ Falha ao atualizar {} status em lote, enviando individualmente: {}",
+                        statuses.size(), e.getMessage());
+            }
+        }
+
+        for (NotificationStatusUpdateDTO status : statuses) {
+            try {
+                notificationClient.updateStatus(status.getNotificationId(), NotificationStatusDTO.builder()
+                        .status(status.getStatus())
+                        .message(status.getMessage())
+                        .build());
+            } catch (Exception e) {
+                log.error("Erro ao atualizar o status da notificação {}: {}",
+                        status.getNotificationId(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fallbackExecutor.shutdown();
+    }
+
+    private record PendingConfirm(NotificationStatusUpdateDTO status, CompletableFuture<Boolean> confirmed) {
+    }
+}
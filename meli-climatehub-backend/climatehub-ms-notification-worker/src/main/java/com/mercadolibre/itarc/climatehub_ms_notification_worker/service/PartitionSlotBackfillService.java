@@ -0,0 +1,52 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Com particionamento ativo, preenche na inicialização o slot dos agendamentos gravados antes
+ * da coluna existir. Sem isso todos eles cairiam no dono do slot 0 (fallback de {@code partitionSlot IS NULL}).
+ * Executar em várias instâncias ao mesmo tempo é seguro: o slot calculado é o mesmo.
+ */
+@Service
+@Slf4j
+public class PartitionSlotBackfillService {
+
+    private final ScheduleRepository scheduleRepository;
+    private final WorkerMembershipService workerMembershipService;
+
+    @Value("${worker.partitioning.backfill-batch-size:1000}")
+    private int batchSize;
+
+    public PartitionSlotBackfillService(ScheduleRepository scheduleRepository,
+                                        WorkerMembershipService workerMembershipService) {
+        this.scheduleRepository = scheduleRepository;
+        this.workerMembershipService = workerMembershipService;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        if (!workerMembershipService.isEnabled()) {
+            return;
+        }
+
+        try {
+            int total = 0;
+            int updated;
+            do {
+                updated = scheduleRepository.backfillPartitionSlots(batchSize);
+                total += updated;
+            } while (updated == batchSize);
+
+            if (total > 0) {
+                log.info("🧩 Slot de partição preenchido para {} agendamentos antigos", total);
+            }
+        } catch (Exception e) {
+            // Os agendamentos sem slot continuam com o dono do slot 0 até a próxima inicialização
+            log.error("❌ Erro ao preencher o slot de partição dos agendamentos antigos: {}", e.getMessage(), e);
+        }
+    }
+}
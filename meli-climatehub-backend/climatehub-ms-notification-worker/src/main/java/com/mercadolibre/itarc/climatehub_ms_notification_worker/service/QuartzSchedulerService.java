@@ -2,22 +2,43 @@ package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
 
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.job.NotificationProcessorJob;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 @Slf4j
 public class QuartzSchedulerService {
 
+    private static final String PARTITION_GROUP = "notification-partition";
+
     private final Scheduler scheduler;
+    private final WorkerMembershipService workerMembershipService;
+    private volatile boolean stopping;
+
+    @Value("${worker.timing-wheel.enabled:false}")
+    private boolean timingWheelEnabled;
+
+    // Com a roda de tempo ligada o job só reconcilia o que ela não disparou
+    @Value("${worker.timing-wheel.reconcile-interval-minutes:10}")
+    private int reconcileIntervalMinutes;
 
-    public QuartzSchedulerService(Scheduler scheduler) {
+    public QuartzSchedulerService(Scheduler scheduler, WorkerMembershipService workerMembershipService) {
         this.scheduler = scheduler;
+        this.workerMembershipService = workerMembershipService;
     }
 
     @PostConstruct
     public void init() {
+        if (workerMembershipService.isEnabled()) {
+            schedulePartitionJob();
+            // Recria o job se outro nó o removeu (ex.: heartbeat desta instância expirado por um tempo)
+            workerMembershipService.onHeartbeat(this::ensurePartitionJob);
+            return;
+        }
+
         try {
             // Cria o job que vai processar as notificações
             JobDetail jobDetail = JobBuilder.newJob(NotificationProcessorJob.class)
@@ -25,21 +46,96 @@ public class QuartzSchedulerService {
                     .storeDurably()
                     .build();
 
-            // Cria o trigger para executar a cada minuto
+            // Cria o trigger para executar a cada minuto (ou no intervalo de reconciliação da roda de tempo)
             Trigger trigger = TriggerBuilder.newTrigger()
                     .withIdentity("notificationTrigger", "notification")
                     .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                            .withIntervalInMinutes(1)
+                            .withIntervalInMinutes(intervalMinutes())
                             .repeatForever())
                     .build();
 
-            // Agenda o job
-            scheduler.scheduleJob(jobDetail, trigger);
+            // Agenda o job; o trigger já gravado no job store de outra execução assume o intervalo atual
+            if (scheduler.checkExists(trigger.getKey())) {
+                scheduler.rescheduleJob(trigger.getKey(), trigger);
+            } else {
+                scheduler.scheduleJob(jobDetail, trigger);
+            }
             
-            log.info("🚀 Job de processamento de notificações agendado com sucesso");
+            log.info("🚀 Job de processamento de notificações agendado com sucesso (a cada {} min)", intervalMinutes());
             
         } catch (SchedulerException e) {
             log.error("❌ Erro ao agendar job de processamento de notificações", e);
         }
     }
-} 
\ No newline at end of file
+
+    @PreDestroy
+    public void destroy() {
+        if (!workerMembershipService.isEnabled()) {
+            return;
+        }
+        stopping = true;
+
+        try {
+            scheduler.deleteJob(partitionJobKey());
+        } catch (SchedulerException e) {
+            log.warn("⚠️ Não foi possível remover o job de partição desta instância: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Com particionamento, cada membro do anel tem o seu próprio job, que processa apenas
+     * os slots daquele membro em qualquer nó do cluster do Quartz.
+     */
+    private void schedulePartitionJob() {
+        try {
+            // O job global processaria todos os slots e voltaria a disputar os mesmos locks
+            scheduler.deleteJob(JobKey.jobKey("notificationProcessor", "notification"));
+
+            String memberId = workerMembershipService.getMemberId();
+            JobDetail jobDetail = JobBuilder.newJob(NotificationProcessorJob.class)
+                    .withIdentity(partitionJobKey())
+                    .usingJobData(NotificationProcessorJob.MEMBER_ID_KEY, memberId)
+                    .storeDurably()
+                    .build();
+
+            // Começa após dois heartbeats, quando os demais nós do cluster já viram o novo membro no anel
+            int startDelaySeconds = (int) (2 * workerMembershipService.getHeartbeatIntervalSeconds());
+            Trigger trigger = TriggerBuilder.newTrigger()
+                    .withIdentity("notificationTrigger-" + memberId, PARTITION_GROUP)
+                    .startAt(DateBuilder.futureDate(startDelaySeconds, DateBuilder.IntervalUnit.SECOND))
+                    .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                            .withIntervalInMinutes(intervalMinutes())
+                            .repeatForever())
+                    .build();
+
+            scheduler.scheduleJob(jobDetail, trigger);
+
+            log.info("🚀 Job de processamento da partição {} agendado com sucesso", memberId);
+
+        } catch (SchedulerException e) {
+            log.error("❌ Erro ao agendar job de processamento da partição", e);
+        }
+    }
+
+    private void ensurePartitionJob() {
+        if (stopping) {
+            return;
+        }
+        try {
+            if (!scheduler.checkExists(partitionJobKey())) {
+                log.warn("♻️ Job de partição da instância {} não encontrado, recriando", workerMembershipService.getMemberId());
+                schedulePartitionJob();
+            }
+        } catch (SchedulerException e) {
+            log.warn("⚠️ Não foi possível verificar o job de partição desta instância: {}", e.getMessage());
+        }
+    }
+
+    private int intervalMinutes() {
+        return timingWheelEnabled ? reconcileIntervalMinutes : 1;
+    }
+
+    private JobKey partitionJobKey() {
+        return JobKey.jobKey("notificationProcessor-" + workerMembershipService.getMemberId(), PARTITION_GROUP);
+    }
+}
@@ -0,0 +1,163 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.NotificationDispatchService.DispatchSummary;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.RedisScheduleLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reivindica agendamentos vencidos diretamente no banco ({@code FOR UPDATE SKIP LOCKED}),
+ * como alternativa aos locks do Redis. Cada linha fica em {@code CLAIMED} com dono e prazo
+ * de lease até o fim do processamento; leases vencidos voltam para {@code ACTIVE}.
+ * O marcador de processamento da hora continua no Redis, como no modo {@code redis}: o que já
+ * foi processado (ex.: falha na previsão) não é reenviado a cada execução.
+ */
+@Service
+@Slf4j
+public class ScheduleClaimService {
+
+    private final ScheduleRepository scheduleRepository;
+    private final NotificationDispatchService notificationDispatchService;
+    private final WorkerMembershipService workerMembershipService;
+    private final RedisScheduleLockService redisScheduleLockService;
+    private final DispatchMetrics metrics;
+
+    @Value("${worker.claim.mode:redis}")
+    private String claimMode;
+
+    @Value("${worker.claim.batch-size:100}")
+    private int batchSize;
+
+    @Value("${worker.claim.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public ScheduleClaimService(
+            ScheduleRepository scheduleRepository,
+            NotificationDispatchService notificationDispatchService,
+            WorkerMembershipService workerMembershipService,
+            RedisScheduleLockService redisScheduleLockService,
+            DispatchMetrics metrics
+    ) {
+        this.scheduleRepository = scheduleRepository;
+        this.notificationDispatchService = notificationDispatchService;
+        this.workerMembershipService = workerMembershipService;
+        this.redisScheduleLockService = redisScheduleLockService;
+        this.metrics = metrics;
+    }
+
+    public boolean isEnabled() {
+        return "database".equalsIgnoreCase(claimMode);
+    }
+
+    /**
+     * Reivindica e processa lotes de agendamentos vencidos até {@code endTime} até esgotá-los.
+     * As reivindicações só são liberadas ao final, para que um agendamento que não avançou
+     * (ex.: falha na previsão) não volte a ser reivindicado na mesma execução.
+     */
+    public DispatchSummary drainDue(LocalDateTime endTime, LocalDateTime utcNow) {
+        reapExpiredClaims(utcNow);
+
+        String owner = workerMembershipService.getMemberId();
+        List<UUID> claimedIds = new ArrayList<>();
+        DispatchSummary summary = DispatchSummary.EMPTY;
+        try {
+            List<ScheduleEntity> batch;
+            do {
+                batch = metrics.time(DispatchMetrics.Phase.LOCK,
+                        () -> scheduleRepository.claimDueSchedules(endTime, utcNow, owner, leaseExpiresAt(), batchSize));
+                batch.forEach(schedule -> claimedIds.add(schedule.getId()));
+
+                if (log.isDebugEnabled()) {
+                    log.debug("📥 Reivindicado lote de {} agendamentos no banco", batch.size());
+                }
+
+                summary = summary.merge(dispatchUnprocessed(batch, utcNow));
+            } while (batch.size() == batchSize);
+        } finally {
+            release(claimedIds, owner);
+        }
+        return summary;
+    }
+
+    /**
+     * Reivindica e processa agendamentos específicos, ignorando os que já estão com outra instância.
+     */
+    public void dispatchByIds(Collection<UUID> scheduleIds, LocalDateTime utcNow) {
+        if (scheduleIds.isEmpty()) {
+            return;
+        }
+
+        String owner = workerMembershipService.getMemberId();
+        List<ScheduleEntity> claimed = metrics.time(DispatchMetrics.Phase.LOCK,
+                () -> scheduleRepository.claimSchedules(scheduleIds, utcNow, owner, leaseExpiresAt()));
+        try {
+            dispatchUnprocessed(claimed, utcNow);
+        } finally {
+            release(claimed.stream().map(ScheduleEntity::getId).toList(), owner);
+        }
+    }
+
+    private DispatchSummary dispatchUnprocessed(List<ScheduleEntity> claimed, LocalDateTime utcNow) {
+        if (claimed.isEmpty()) {
+            return DispatchSummary.EMPTY;
+        }
+
+        List<UUID> ids = claimed.stream().map(ScheduleEntity::getId).toList();
+        Set<UUID> alreadyProcessed = metrics.time(DispatchMetrics.Phase.LOCK,
+                () -> redisScheduleLockService.findProcessed(ids, utcNow));
+        metrics.count(DispatchMetrics.Outcome.ALREADY_PROCESSED, alreadyProcessed.size());
+
+        List<ScheduleEntity> pending = claimed.stream()
+                .filter(schedule -> !alreadyProcessed.contains(schedule.getId()))
+                .toList();
+        if (pending.isEmpty()) {
+            return DispatchSummary.EMPTY;
+        }
+
+        Set<UUID> processed = ConcurrentHashMap.newKeySet();
+        try {
+            return notificationDispatchService.dispatchClaimed(pending, processed);
+        } finally {
+            metrics.time(DispatchMetrics.Phase.LOCK, () -> redisScheduleLockService.release(List.of(), processed, utcNow));
+        }
+    }
+
+    private void reapExpiredClaims(LocalDateTime utcNow) {
+        try {
+            int reaped = scheduleRepository.releaseExpiredClaims(utcNow);
+            if (reaped > 0) {
+                log.warn("♻️ {} agendamentos com lease vencido devolvidos para ACTIVE", reaped);
+            }
+        } catch (Exception e) {
+            log.error("❌ Erro ao liberar reivindicações vencidas: {}", e.getMessage(), e);
+        }
+    }
+
+    private void release(List<UUID> claimedIds, String owner) {
+        for (int from = 0; from < claimedIds.size(); from += batchSize) {
+            List<UUID> chunk = claimedIds.subList(from, Math.min(from + batchSize, claimedIds.size()));
+            try {
+                metrics.time(DispatchMetrics.Phase.LOCK, () -> scheduleRepository.releaseClaims(chunk, owner));
+            } catch (Exception e) {
+                // O reaper devolve essas linhas quando o lease vencer
+                log.error("❌ Erro ao liberar {} reivindicações: {}", chunk.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private LocalDateTime leaseExpiresAt() {
+        return LocalDateTime.now(ZoneOffset.UTC).plusSeconds(leaseSeconds);
+    }
+}
@@ -0,0 +1,213 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantém em memória os agendamentos ativos dos próximos minutos numa roda de tempo
+ * e dispara cada bucket no segundo em que vence, a partir das entidades já carregadas.
+ * Cada refresh relê o horizonte inteiro numa única consulta, o que atualiza as cópias em
+ * memória e descarta o que deixou de vencer nele. Com a roda ligada, o job do Quartz roda
+ * apenas como reconciliação de baixa frequência ({@code worker.timing-wheel.reconcile-interval-minutes})
+ * para o que a roda não conhecer.
+ */
+@Service
+@Slf4j
+public class ScheduleTimingWheelService {
+
+    private final ScheduleRepository scheduleRepository;
+    private final NotificationDispatchService notificationDispatchService;
+    private final WorkerMembershipService workerMembershipService;
+    private final ScheduleClaimService scheduleClaimService;
+
+    @Value("${worker.timing-wheel.enabled:false}")
+    private boolean enabled;
+
+    @Value("${worker.timing-wheel.horizon-minutes:10}")
+    private long horizonMinutes;
+
+    @Value("${worker.timing-wheel.refresh-interval-seconds:30}")
+    private long refreshIntervalSeconds;
+
+    // Cópia carregada e segundo de vencimento por agendamento; entradas antigas da roda são descartadas
+    private final Map<UUID, Pending> pendingById = new ConcurrentHashMap<>();
+    // Geração do refresh em curso: entradas anteriores a ela e ausentes da releitura saem da roda
+    private final AtomicLong generation = new AtomicLong();
+    private HashedTimingWheel<UUID> wheel;
+    private ScheduledExecutorService executor;
+    private volatile LocalDateTime loadedUntil;
+
+    public ScheduleTimingWheelService(
+            ScheduleRepository scheduleRepository,
+            NotificationDispatchService notificationDispatchService,
+            WorkerMembershipService workerMembershipService,
+            ScheduleClaimService scheduleClaimService
+    ) {
+        this.scheduleRepository = scheduleRepository;
+        this.notificationDispatchService = notificationDispatchService;
+        this.workerMembershipService = workerMembershipService;
+        this.scheduleClaimService = scheduleClaimService;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        long nowMillis = System.currentTimeMillis();
+        wheel = new HashedTimingWheel<>((int) TimeUnit.MINUTES.toSeconds(horizonMinutes), nowMillis / 1000);
+        executor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "schedule-timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Alinha o tick com a virada de cada segundo
+        executor.scheduleAtFixedRate(this::tick, 1000 - (nowMillis % 1000), 1000, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalSeconds, TimeUnit.SECONDS);
+
+        log.info("🎡 Roda de tempo iniciada (horizonte: {} min, refresh: {}s)", horizonMinutes, refreshIntervalSeconds);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Registra um agendamento na roda caso ele vença dentro do horizonte já carregado.
+     * Agendamentos além do horizonte entram no próximo refresh incremental.
+     */
+    public void offer(ScheduleEntity schedule) {
+        if (!enabled || wheel == null) {
+            return;
+        }
+        if (schedule.getStatus() != ScheduleStatus.ACTIVE || schedule.getNextExecution() == null) {
+            return;
+        }
+        if (!workerMembershipService.isOwnedLocally(schedule)) {
+            return;
+        }
+
+        LocalDateTime horizon = loadedUntil;
+        if (horizon == null || schedule.getNextExecution().isAfter(horizon)) {
+            return;
+        }
+
+        long due = schedule.getNextExecution().toEpochSecond(ZoneOffset.UTC);
+        Pending previous = pendingById.put(schedule.getId(), new Pending(schedule, due, generation.get()));
+        if (previous == null || previous.due() != due) {
+            wheel.add(schedule.getId(), due);
+        }
+    }
+
+    private void refresh() {
+        try {
+            LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+            long current = generation.incrementAndGet();
+
+            LocalDateTime from = utcNow.minusSeconds(NotificationDispatchService.TOLERANCE_SECONDS);
+            LocalDateTime to = utcNow.plusMinutes(horizonMinutes);
+
+            // Relê o horizonte inteiro: novos agendamentos entram e os já conhecidos têm a cópia atualizada
+            List<ScheduleEntity> upcoming = findUpcoming(from, to, utcNow);
+            loadedUntil = to;
+            upcoming.forEach(this::offer);
+
+            // Sai da roda o que não voltou na releitura (finalizado, reagendado para além do horizonte
+            // ou de outra partição); o que foi oferecido durante a consulta já é da geração atual
+            Set<UUID> loaded = new HashSet<>(upcoming.size());
+            upcoming.forEach(schedule -> loaded.add(schedule.getId()));
+            pendingById.entrySet().removeIf(entry ->
+                    entry.getValue().generation() < current && !loaded.contains(entry.getKey()));
+
+            if (log.isDebugEnabled()) {
+                log.debug("🎡 Roda de tempo atualizada: {} agendamentos entre {} e {} (UTC), {} na roda",
+                        upcoming.size(), from, to, pendingById.size());
+            }
+        } catch (Exception e) {
+            log.error("❌ Erro ao atualizar a roda de tempo: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<ScheduleEntity> findUpcoming(LocalDateTime from, LocalDateTime to, LocalDateTime utcNow) {
+        if (!workerMembershipService.isEnabled()) {
+            return scheduleRepository.findActiveSchedulesDueBetween(from, to, utcNow);
+        }
+
+        String memberId = workerMembershipService.getMemberId();
+        Set<Integer> slots = workerMembershipService.ownedSlots();
+        boolean includeUnassigned = workerMembershipService.ownsUnassigned(memberId);
+        if (slots.isEmpty() && !includeUnassigned) {
+            return List.of();
+        }
+        return scheduleRepository.findActiveSchedulesDueBetweenInSlots(
+                from, to, utcNow, slots.isEmpty() ? Set.of(-1) : slots, includeUnassigned);
+    }
+
+    private void tick() {
+        try {
+            long nowSecond = Instant.now().getEpochSecond();
+            List<ScheduleEntity> due = new ArrayList<>();
+            for (UUID id : wheel.advance(nowSecond)) {
+                Pending pending = pendingById.get(id);
+                if (pending != null && pending.due() <= nowSecond && pendingById.remove(id, pending)) {
+                    due.add(pending.schedule());
+                }
+            }
+
+            if (due.isEmpty()) {
+                return;
+            }
+
+            if (scheduleClaimService.isEnabled()) {
+                // A reivindicação no banco já recarrega e filtra os agendamentos ainda ativos
+                scheduleClaimService.dispatchByIds(due.stream().map(ScheduleEntity::getId).toList(),
+                        LocalDateTime.now(ZoneOffset.UTC));
+                return;
+            }
+
+            // Dispara a cópia do último refresh, sem voltar ao banco; entre instâncias o envio
+            // duplicado é barrado pelo lock e pelo marcador de processamento no Redis
+            List<ScheduleEntity> schedules = due.stream()
+                    .filter(workerMembershipService::isOwnedLocally)
+                    .toList();
+
+            if (log.isDebugEnabled()) {
+                log.debug("🎡 Disparando {} agendamentos da roda de tempo", schedules.size());
+            }
+
+            notificationDispatchService.dispatch(schedules, LocalDateTime.now(ZoneOffset.UTC));
+        } catch (Exception e) {
+            log.error("❌ Erro ao disparar bucket da roda de tempo: {}", e.getMessage(), e);
+        }
+    }
+
+    private record Pending(ScheduleEntity schedule, long due, long generation) {
+    }
+}
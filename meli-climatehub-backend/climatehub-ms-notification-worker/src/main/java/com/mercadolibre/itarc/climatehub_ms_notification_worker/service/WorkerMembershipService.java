@@ -0,0 +1,182 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.ConsistentHashRing;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra esta instância no anel de workers mantido no Redis e calcula quais slots
+ * de partição pertencem a cada membro. Cada membro renova seu heartbeat periodicamente;
+ * membros sem heartbeat dentro do TTL saem do anel e seus slots são redistribuídos.
+ */
+@Service
+@Slf4j
+public class WorkerMembershipService {
+
+    private static final String MEMBERS_KEY = "worker:members";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${worker.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${worker.partitioning.heartbeat-interval-seconds:5}")
+    private long heartbeatIntervalSeconds;
+
+    @Value("${worker.partitioning.member-ttl-seconds:15}")
+    private long memberTtlSeconds;
+
+    @Value("${worker.partitioning.virtual-nodes:64}")
+    private int virtualNodes;
+
+    private final String memberId = resolveMemberId();
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(List.of(), 0);
+    private final List<Runnable> heartbeatListeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService executor;
+
+    public WorkerMembershipService(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        // Primeiro heartbeat síncrono para que o anel já exista quando os jobs forem agendados
+        heartbeat();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-membership");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalSeconds, heartbeatIntervalSeconds, TimeUnit.SECONDS);
+
+        log.info("💍 Instância {} registrada no anel de workers", memberId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (enabled) {
+            try {
+                redisTemplate.opsForZSet().remove(MEMBERS_KEY, memberId);
+            } catch (Exception e) {
+                log.warn("⚠️ Não foi possível remover a instância {} do anel: {}", memberId, e.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public long getHeartbeatIntervalSeconds() {
+        return heartbeatIntervalSeconds;
+    }
+
+    /**
+     * Executado ao final de cada heartbeat, na thread do heartbeat.
+     */
+    public void onHeartbeat(Runnable listener) {
+        heartbeatListeners.add(listener);
+    }
+
+    public boolean isMember(String member) {
+        return ring.getMembers().contains(member);
+    }
+
+    /**
+     * Consulta o heartbeat do membro direto no Redis, sem depender do anel local (que só é
+     * atualizado no heartbeat desta instância). Na falha do Redis considera o membro ativo.
+     */
+    public boolean isLiveMember(String member) {
+        try {
+            Double lastHeartbeat = redisTemplate.opsForZSet().score(MEMBERS_KEY, member);
+            return lastHeartbeat != null
+                    && lastHeartbeat >= System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(memberTtlSeconds);
+        } catch (Exception e) {
+            log.warn("⚠️ Não foi possível consultar o heartbeat do membro {}: {}", member, e.getMessage());
+            return true;
+        }
+    }
+
+    public Set<Integer> slotsOf(String member) {
+        return ring.slotsOf(member, ScheduleEntity.PARTITION_SLOTS);
+    }
+
+    public Set<Integer> ownedSlots() {
+        return slotsOf(memberId);
+    }
+
+    /**
+     * Agendamentos antigos, sem slot, ficam com o dono do slot 0.
+     */
+    public boolean ownsUnassigned(String member) {
+        return member.equals(ring.ownerOf(0));
+    }
+
+    public boolean isOwnedLocally(ScheduleEntity schedule) {
+        if (!enabled) {
+            return true;
+        }
+        Integer slot = schedule.getPartitionSlot();
+        return memberId.equals(ring.ownerOf(slot != null ? slot : 0));
+    }
+
+    private void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().add(MEMBERS_KEY, memberId, now);
+            redisTemplate.opsForZSet().removeRangeByScore(MEMBERS_KEY, 0, now - TimeUnit.SECONDS.toMillis(memberTtlSeconds));
+
+            Set<String> members = redisTemplate.opsForZSet().range(MEMBERS_KEY, 0, -1);
+            if (members != null && !members.equals(ring.getMembers())) {
+                ring = new ConsistentHashRing(members, virtualNodes);
+                log.info("💍 Anel de workers rebalanceado: {} membros, {} slots locais",
+                        members.size(), ownedSlots().size());
+            }
+        } catch (Exception e) {
+            log.error("❌ Erro ao renovar heartbeat da instância {}: {}", memberId, e.getMessage(), e);
+        }
+
+        for (Runnable listener : heartbeatListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.error("❌ Erro ao executar tarefa do heartbeat: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static String resolveMemberId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "worker";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
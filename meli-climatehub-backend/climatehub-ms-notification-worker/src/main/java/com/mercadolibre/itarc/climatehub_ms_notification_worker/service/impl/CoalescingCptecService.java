@@ -0,0 +1,257 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CptecService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fica na frente do {@link CptecServiceImpl} e agrupa as buscas concorrentes pela mesma chave
+ * numa única ida ao CPTEC, evitando o efeito manada quando uma cidade popular expira no cache.
+ * Opcionalmente estende o agrupamento entre instâncias com um lease curto no Redis: quem não
+ * obtém o lease aguarda o valor aparecer no cache compartilhado antes de buscar por conta própria.
+ */
+@Service
+@Primary
+@Slf4j
+public class CoalescingCptecService implements CptecService {
+
+    private static final String LEASE_KEY_PREFIX = "cptec:flight:";
+
+    // Remove o lease apenas se ele ainda pertencer a esta instância
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final CptecService delegate;
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+    private final ExecutorService waitExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final String leaseOwner = UUID.randomUUID().toString();
+    private final Counter peerCoalesced;
+
+    @Value("${cptec.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cptec.single-flight.redis-lease.enabled:false}")
+    private boolean redisLeaseEnabled;
+
+    @Value("${cptec.single-flight.redis-lease.lease-ms:3000}")
+    private long leaseMs;
+
+    @Value("${cptec.single-flight.redis-lease.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    public CoalescingCptecService(
+            @Qualifier("cptecServiceImpl") CptecService delegate,
+            CacheManager cacheManager,
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry registry
+    ) {
+        this.delegate = delegate;
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+
+        FunctionCounter.builder("cptec.requests.coalesced", flights, SingleFlight::coalescedCount)
+                .description("Buscas ao CPTEC atendidas por uma busca já em andamento")
+                .tag("scope", "local")
+                .register(registry);
+        peerCoalesced = Counter.builder("cptec.requests.coalesced")
+                .description("Buscas ao CPTEC atendidas por uma busca já em andamento")
+                .tag("scope", "redis")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        waitExecutor.shutdownNow();
+    }
+
+    @Override
+    public CityCache getCityId(String cityName, String uf) {
+        String key = cityName.toLowerCase() + "-" + uf.toUpperCase();
+        return coalesce("cityCache", key, CityCache.class, () -> delegate.getCityId(cityName, uf));
+    }
+
+    @Override
+    public PrevisaoCache getPrevisao(Integer cityId) {
+        return coalesce("previsaoCache", cityId, PrevisaoCache.class, () -> delegate.getPrevisao(cityId));
+    }
+
+    @Override
+    public OndasCache getPrevisaoOndas(Integer cityId, Integer dia) {
+        return coalesce("ondasCache", cityId + "-" + dia, OndasCache.class, () -> delegate.getPrevisaoOndas(cityId, dia));
+    }
+
+    @Override
+    public CompletableFuture<CityCache> getCityIdAsync(String cityName, String uf) {
+        String key = cityName.toLowerCase() + "-" + uf.toUpperCase();
+        return coalesceAsync("cityCache", key, CityCache.class, () -> delegate.getCityIdAsync(cityName, uf));
+    }
+
+    @Override
+    public CompletableFuture<PrevisaoCache> getPrevisaoAsync(Integer cityId) {
+        return coalesceAsync("previsaoCache", cityId, PrevisaoCache.class, () -> delegate.getPrevisaoAsync(cityId));
+    }
+
+    @Override
+    public CompletableFuture<PrevisaoCache> refreshPrevisaoAsync(Integer cityId) {
+        if (!enabled) {
+            return delegate.refreshPrevisaoAsync(cityId);
+        }
+        // Chave própria: uma atualização não pode reaproveitar uma leitura que devolveria o valor em cache
+        return flights.execute(flightKey("previsaoCache", cityId) + ":refresh",
+                        () -> delegate.refreshPrevisaoAsync(cityId).thenApply(Object.class::cast))
+                .thenApply(PrevisaoCache.class::cast);
+    }
+
+    private <T> T coalesce(String cacheName, Object key, Class<T> type, Supplier<T> fetch) {
+        if (!enabled) {
+            return fetch.get();
+        }
+        Object value = flights.get(flightKey(cacheName, key), () -> leased(cacheName, key, type, fetch));
+        return type.cast(value);
+    }
+
+    private <T> CompletableFuture<T> coalesceAsync(String cacheName, Object key, Class<T> type,
+                                                   Supplier<CompletableFuture<T>> fetch) {
+        if (!enabled) {
+            return fetch.get();
+        }
+        return flights.execute(flightKey(cacheName, key),
+                        () -> leasedAsync(cacheName, key, type, fetch).thenApply(Object.class::cast))
+                .thenApply(type::cast);
+    }
+
+    /**
+     * Busca com o lease entre instâncias. Sem o lease, aguarda o valor de quem o detém até o lease
+     * expirar e só então busca diretamente, para que uma instância lenta ou morta não bloqueie as demais.
+     */
+    private <T> T leased(String cacheName, Object key, Class<T> type, Supplier<T> fetch) {
+        if (!redisLeaseEnabled) {
+            return fetch.get();
+        }
+
+        T cached = cached(cacheName, key, type);
+        if (cached != null) {
+            return cached;
+        }
+
+        String leaseKey = LEASE_KEY_PREFIX + flightKey(cacheName, key);
+        if (tryAcquireLease(leaseKey)) {
+            try {
+                return fetch.get();
+            } finally {
+                releaseLease(leaseKey);
+            }
+        }
+
+        T fromPeer = awaitPeer(cacheName, key, type);
+        return fromPeer != null ? fromPeer : fetch.get();
+    }
+
+    private <T> CompletableFuture<T> leasedAsync(String cacheName, Object key, Class<T> type,
+                                                 Supplier<CompletableFuture<T>> fetch) {
+        if (!redisLeaseEnabled) {
+            return fetch.get();
+        }
+
+        // A consulta ao Redis e a espera pelo lease não podem rodar na thread de quem chama
+        return CompletableFuture.supplyAsync(() -> {
+            T cached = cached(cacheName, key, type);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+
+            String leaseKey = LEASE_KEY_PREFIX + flightKey(cacheName, key);
+            if (tryAcquireLease(leaseKey)) {
+                return fetch.get().whenComplete((value, error) -> releaseLease(leaseKey));
+            }
+
+            T fromPeer = awaitPeer(cacheName, key, type);
+            return fromPeer != null ? CompletableFuture.completedFuture(fromPeer) : fetch.get();
+        }, waitExecutor).thenCompose(future -> future);
+    }
+
+    private <T> T awaitPeer(String cacheName, Object key, Class<T> type) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMs);
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            T value = cached(cacheName, key, type);
+            if (value != null) {
+                peerCoalesced.increment();
+                return value;
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("⏳ Lease de {}:{} expirou sem valor no cache; buscando diretamente no CPTEC", cacheName, key);
+        }
+        return null;
+    }
+
+    private boolean tryAcquireLease(String leaseKey) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey, leaseOwner, Duration.ofMillis(leaseMs)));
+        } catch (Exception e) {
+            // Sem Redis segue apenas com o agrupamento local
+            log.warn("⚠️ Não foi possível obter o lease {}: {}", leaseKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), leaseOwner);
+        } catch (Exception e) {
+            log.warn("⚠️ Não foi possível liberar o lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private <T> T cached(String cacheName, Object key, Class<T> type) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            return cache != null ? cache.get(key, type) : null;
+        } catch (Exception e) {
+            log.warn("⚠️ Erro ao ler o cache {}: {}", cacheName, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String flightKey(String cacheName, Object key) {
+        return cacheName + ":" + key;
+    }
+}
@@ -3,38 +3,144 @@ package com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.CidadesXmlResponse;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.OndasXmlResponse;
-import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.PrevisaoXmlResponse;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.CidadeXml;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CityCatalogService;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CptecService;
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.Unmarshaller;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.AdaptiveConcurrencyLimiter;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CptecXmlParser;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpHeaders;
 
-import java.io.StringReader;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.text.Normalizer;
 import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @Service
+@Slf4j
 public class CptecServiceImpl implements CptecService {
+    private static final String LAST_GOOD_CACHE = "previsaoStaleCache";
+
     private final RestTemplate restTemplate;
-    private static final String BASE_URL = "http://servicos.cptec.inpe.br/XML";
+    private final CptecXmlParser cptecXmlParser;
+    private final CacheManager cacheManager;
+    private final CityCatalogService cityCatalogService;
+    private final String baseUrl;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long limiterMaxWaitNanos;
+    private final Counter limiterRejections;
+
+    @Value("${cptec.stale.enabled:true}")
+    private boolean serveStale;
+
+    // Cliente assíncrono: conexões keep-alive reaproveitadas pelo HttpClient do JDK,
+    // limitadas pelo limite adaptativo e executadas em virtual threads
+    private final HttpClient httpClient;
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    // Fecha o corpo das respostas que passam do prazo de leitura
+    private final ScheduledExecutorService bodyDeadlines = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("cptec-body-deadline").factory());
+    private final Duration readTimeout;
+    private final Duration totalTimeout;
 
-    public CptecServiceImpl(RestTemplateBuilder restTemplateBuilder) {
+    public CptecServiceImpl(
+            RestTemplateBuilder restTemplateBuilder,
+            CptecXmlParser cptecXmlParser,
+            CacheManager cacheManager,
+            CityCatalogService cityCatalogService,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry registry,
+            @Value("${cptec.base-url:http://servicos.cptec.inpe.br/XML}") String baseUrl,
+            @Value("${cptec.http.max-connections:32}") int maxConnections,
+            @Value("${cptec.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${cptec.http.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${cptec.http.total-timeout-ms:8000}") long totalTimeoutMs,
+            @Value("${cptec.limiter.initial-limit:8}") int initialLimit,
+            @Value("${cptec.limiter.min-limit:2}") int minLimit,
+            @Value("${cptec.limiter.latency-threshold-ms:1500}") long latencyThresholdMs,
+            @Value("${cptec.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${cptec.limiter.max-wait-ms:2000}") long maxWaitMs
+    ) {
+        this.cptecXmlParser = cptecXmlParser;
+        this.cacheManager = cacheManager;
+        this.cityCatalogService = cityCatalogService;
+        this.baseUrl = baseUrl;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("cptec");
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxConnections,
+                latencyThresholdMs, backoffRatio);
+        this.limiterMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
         this.restTemplate = restTemplateBuilder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(10))
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
                 .defaultHeader(HttpHeaders.ACCEPT_CHARSET, StandardCharsets.UTF_8.name())
                 .build();
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(asyncExecutor)
+                .build();
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.totalTimeout = Duration.ofMillis(totalTimeoutMs);
+
+        Gauge.builder("cptec.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Requisições simultâneas ao CPTEC permitidas no momento")
+                .register(registry);
+        Gauge.builder("cptec.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requisições ao CPTEC em andamento")
+                .register(registry);
+        Gauge.builder("cptec.limiter.queue", limiter, AdaptiveConcurrencyLimiter::getQueueDepth)
+                .description("Chamadas aguardando vaga para requisitar o CPTEC")
+                .register(registry);
+        this.limiterRejections = Counter.builder("cptec.limiter.rejected")
+                .description("Chamadas ao CPTEC recusadas por esgotar o prazo na fila do limite")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncExecutor.shutdownNow();
+        bodyDeadlines.shutdownNow();
     }
 
     private String normalizarNome(String nome) {
@@ -63,74 +169,40 @@ public class CptecServiceImpl implements CptecService {
     @Override
     @Cacheable(value = "cityCache", key = "#cityName.toLowerCase() + '-' + #uf.toUpperCase()", unless = "#result == null")
     public CityCache getCityId(String cityName, String uf) {
+        CityCache fromCatalog = cityCatalogService.find(cityName, uf);
+        if (fromCatalog != null) {
+            return fromCatalog;
+        }
+
         String normalizedCityName = normalizarNome(cityName);
 
-        String xml = restTemplate.getForObject(
-                BASE_URL + "/listaCidades?city={cityName}",
-                String.class,
+        List<CidadeXml> cidades = fetch(
+                "/listaCidades?city={cityName}",
+                cptecXmlParser::parseCidades,
+                "Erro ao parsear resposta do CPTEC/INPE",
                 normalizedCityName
         );
 
-        try {
-            JAXBContext context = JAXBContext.newInstance(CidadesXmlResponse.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            StringReader reader = new StringReader(xml);
-            CidadesXmlResponse response = (CidadesXmlResponse) unmarshaller.unmarshal(reader);
-
-            return response.getCidades().stream()
-                    .filter(c -> {
-                        String normalizedNome = normalizarNome(c.getNome());
-                        return normalizedNome.equalsIgnoreCase(normalizedCityName) &&
-                                c.getUf().equalsIgnoreCase(uf);
-                    })
-                    .findFirst()
-                    .map(c -> new CityCache(c.getId(), c.getUf()))
-                    .orElse(null);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao parsear resposta do CPTEC/INPE", e);
-        }
+        return cidades.stream()
+                .filter(c -> {
+                    String normalizedNome = normalizarNome(c.getNome());
+                    return normalizedNome.equalsIgnoreCase(normalizedCityName) &&
+                            c.getUf().equalsIgnoreCase(uf);
+                })
+                .findFirst()
+                .map(c -> new CityCache(c.getId(), c.getUf()))
+                .orElse(null);
     }
 
     @Override
-    @Cacheable(value = "previsaoCache", key = "#cityId", unless = "#result == null")
+    @Cacheable(value = "previsaoCache", key = "#cityId", unless = "#result == null || #result.stale")
     public PrevisaoCache getPrevisao(Integer cityId) {
-        String xml = restTemplate.getForObject(
-                BASE_URL + "/cidade/{cityId}/previsao.xml",
-                String.class,
+        return withLastGood(cityId, () -> fetch(
+                "/cidade/{cityId}/previsao.xml",
+                cptecXmlParser::parsePrevisao,
+                "Erro ao parsear resposta de previsão do CPTEC/INPE",
                 cityId
-        );
-
-        try {
-            JAXBContext context = JAXBContext.newInstance(PrevisaoXmlResponse.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            StringReader reader = new StringReader(xml);
-            PrevisaoXmlResponse response = (PrevisaoXmlResponse) unmarshaller.unmarshal(reader);
-
-            PrevisaoCache previsaoCache = new PrevisaoCache();
-            previsaoCache.setNome(response.getNome());
-            previsaoCache.setUf(response.getUf());
-            previsaoCache.setAtualizacao(response.getAtualizacao());
-
-            List<PrevisaoCache.PrevisaoDia> previsoes = response.getPrevisoes().stream()
-                    .map(p -> {
-                        PrevisaoCache.PrevisaoDia previsaoDia = new PrevisaoCache.PrevisaoDia();
-                        previsaoDia.setDia(p.getDia());
-                        previsaoDia.setTempo(p.getTempo());
-                        previsaoDia.setMaxima(p.getMaxima());
-                        previsaoDia.setMinima(p.getMinima());
-                        previsaoDia.setIuv(p.getIuv());
-                        return previsaoDia;
-                    })
-                    .collect(Collectors.toList());
-
-            previsaoCache.setPrevisoes(previsoes);
-
-            return previsaoCache;
-
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao parsear resposta de previsão do CPTEC/INPE", e);
-        }
+        ));
     }
 
     @Override
@@ -140,64 +212,260 @@ public class CptecServiceImpl implements CptecService {
             throw new IllegalArgumentException("O parâmetro 'dia' deve estar entre 0 e 2");
         }
 
-        String xml = restTemplate.getForObject(
-                BASE_URL + "/cidade/{cityId}/dia/{dia}/ondas.xml",
-                String.class,
+        return fetch(
+                "/cidade/{cityId}/dia/{dia}/ondas.xml",
+                cptecXmlParser::parseOndas,
+                "Erro ao parsear resposta de ondas do CPTEC/INPE",
                 cityId,
                 dia
         );
+    }
+
+    @Override
+    public CompletableFuture<CityCache> getCityIdAsync(String cityName, String uf) {
+        CityCache fromCatalog = cityCatalogService.find(cityName, uf);
+        if (fromCatalog != null) {
+            return CompletableFuture.completedFuture(fromCatalog);
+        }
+
+        return cachedAsync("cityCache", cityName.toLowerCase() + "-" + uf.toUpperCase(), CityCache.class,
+                () -> {
+                    String normalizedCityName = normalizarNome(cityName);
+                    List<CidadeXml> cidades = fetchAsync(
+                            "/listaCidades?city={cityName}",
+                            cptecXmlParser::parseCidades,
+                            "Erro ao parsear resposta do CPTEC/INPE",
+                            normalizedCityName
+                    );
+                    return cidades.stream()
+                            .filter(c -> normalizarNome(c.getNome()).equalsIgnoreCase(normalizedCityName)
+                                    && c.getUf().equalsIgnoreCase(uf))
+                            .findFirst()
+                            .map(c -> new CityCache(c.getId(), c.getUf()))
+                            .orElse(null);
+                });
+    }
+
+    @Override
+    public CompletableFuture<PrevisaoCache> getPrevisaoAsync(Integer cityId) {
+        return cachedAsync("previsaoCache", cityId, PrevisaoCache.class,
+                () -> withLastGood(cityId, () -> fetchAsync(
+                        "/cidade/{cityId}/previsao.xml",
+                        cptecXmlParser::parsePrevisao,
+                        "Erro ao parsear resposta de previsão do CPTEC/INPE",
+                        cityId
+                )));
+    }
+
+    @Override
+    public CompletableFuture<PrevisaoCache> refreshPrevisaoAsync(Integer cityId) {
+        return supplyWithDeadline(() -> {
+            PrevisaoCache previsao = withLastGood(cityId, () -> fetchAsync(
+                    "/cidade/{cityId}/previsao.xml",
+                    cptecXmlParser::parsePrevisao,
+                    "Erro ao parsear resposta de previsão do CPTEC/INPE",
+                    cityId
+            ));
+            Cache cache = cacheManager.getCache("previsaoCache");
+            if (previsao != null && !previsao.isStale() && cache != null) {
+                cache.put(cityId, previsao);
+            }
+            return previsao;
+        });
+    }
+
+    /**
+     * Mesmo cache (e chaves) usado pelo {@code @Cacheable} das variantes síncronas.
+     * Toda a busca roda numa virtual thread; o tempo total é limitado por {@code cptec.http.total-timeout-ms}.
+     */
+    private <T> CompletableFuture<T> cachedAsync(String cacheName, Object key, Class<T> type, Supplier<T> loader) {
+        return supplyWithDeadline(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            T cached = cache != null ? cache.get(key, type) : null;
+            if (cached != null) {
+                return cached;
+            }
+
+            T value = loader.get();
+            if (value != null && !(value instanceof PrevisaoCache previsao && previsao.isStale()) && cache != null) {
+                cache.put(key, value);
+            }
+            return value;
+        });
+    }
 
+    /**
+     * Executa a busca numa virtual thread limitada a {@code cptec.http.total-timeout-ms}. Esgotado o prazo,
+     * a thread é interrompida: a requisição é cancelada e a vaga do limite de concorrência devolvida.
+     */
+    private <T> CompletableFuture<T> supplyWithDeadline(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = asyncExecutor.submit(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.orTimeout(totalTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error instanceof TimeoutException) {
+                        running.cancel(true);
+                    }
+                });
+    }
+
+    /**
+     * Guarda a última previsão válida de cada cidade e a devolve, marcada como desatualizada, quando
+     * o CPTEC falha, o circuit breaker está aberto ou a fila do limite de concorrência esgota o prazo. Erros 4xx seguem propagados.
+     */
+    private PrevisaoCache withLastGood(Integer cityId, Supplier<PrevisaoCache> fetcher) {
+        Cache lastGood = cacheManager.getCache(LAST_GOOD_CACHE);
         try {
-            JAXBContext context = JAXBContext.newInstance(OndasXmlResponse.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            StringReader reader = new StringReader(xml);
-            OndasXmlResponse response = (OndasXmlResponse) unmarshaller.unmarshal(reader);
-
-            OndasCache ondasCache = new OndasCache();
-            ondasCache.setNome(response.getNome());
-            ondasCache.setUf(response.getUf());
-            ondasCache.setAtualizacao(response.getAtualizacao());
-
-            // Mapeia previsão da manhã
-            if (response.getManha() != null) {
-                OndasCache.PrevisaoPeriodo manha = new OndasCache.PrevisaoPeriodo();
-                manha.setDia(response.getManha().getDia());
-                manha.setAgitacao(response.getManha().getAgitacao());
-                manha.setAltura(response.getManha().getAltura());
-                manha.setDirecao(response.getManha().getDirecao());
-                manha.setVento(response.getManha().getVento());
-                manha.setVentoDir(response.getManha().getVentoDir());
-                ondasCache.setManha(manha);
+            PrevisaoCache previsao = fetcher.get();
+            if (previsao != null && lastGood != null) {
+                lastGood.put(cityId, previsao);
             }
+            return previsao;
+        } catch (HttpClientErrorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            PrevisaoCache stale = serveStale && lastGood != null ? lastGood.get(cityId, PrevisaoCache.class) : null;
+            if (stale == null) {
+                throw e;
+            }
+            log.warn("⚠️ CPTEC indisponível para a cidade {} ({}); usando a última previsão válida, de {}",
+                    cityId, e.getMessage(), stale.getAtualizacao());
+            return stale.asStale();
+        }
+    }
+
+    /**
+     * Circuit breaker por fora e limite de concorrência adaptativo por dentro: com o circuito aberto
+     * nem se entra na fila. A latência de cada resposta e os erros 5xx, 429 e de I/O ajustam o limite.
+     */
+    private <T> T protect(Supplier<T> call) {
+        return circuitBreaker.executeSupplier(() -> limited(call));
+    }
 
-            // Mapeia previsão da tarde
-            if (response.getTarde() != null) {
-                OndasCache.PrevisaoPeriodo tarde = new OndasCache.PrevisaoPeriodo();
-                tarde.setDia(response.getTarde().getDia());
-                tarde.setAgitacao(response.getTarde().getAgitacao());
-                tarde.setAltura(response.getTarde().getAltura());
-                tarde.setDirecao(response.getTarde().getDirecao());
-                tarde.setVento(response.getTarde().getVento());
-                tarde.setVentoDir(response.getTarde().getVentoDir());
-                ondasCache.setTarde(tarde);
+    private <T> T limited(Supplier<T> call) {
+        try {
+            if (!limiter.tryAcquire(System.nanoTime() + limiterMaxWaitNanos)) {
+                limiterRejections.increment();
+                throw new AdaptiveConcurrencyLimiter.LimitExceededException(
+                        "Limite de requisições simultâneas ao CPTEC atingido (" + limiter.getLimit() + ")");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Espera por vaga para o CPTEC interrompida");
+        }
 
-            // Mapeia previsão da noite
-            if (response.getNoite() != null) {
-                OndasCache.PrevisaoPeriodo noite = new OndasCache.PrevisaoPeriodo();
-                noite.setDia(response.getNoite().getDia());
-                noite.setAgitacao(response.getNoite().getAgitacao());
-                noite.setAltura(response.getNoite().getAltura());
-                noite.setDirecao(response.getNoite().getDirecao());
-                noite.setVento(response.getNoite().getVento());
-                noite.setVentoDir(response.getNoite().getVentoDir());
-                ondasCache.setNoite(noite);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            limiter.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                limiter.onDropped();
+            } else {
+                limiter.onIgnored();
             }
+            throw e;
+        } catch (RuntimeException e) {
+            limiter.onDropped();
+            throw e;
+        }
+    }
+
+    private <T> T fetchAsync(String path, XmlParser<T> parser, String parseErrorMessage, Object... uriVariables) {
+        return protect(() -> send(path, parser, parseErrorMessage, uriVariables));
+    }
+
+    private <T> T send(String path, XmlParser<T> parser, String parseErrorMessage, Object... uriVariables) {
+        URI uri = restTemplate.getUriTemplateHandler().expand(baseUrl + path, uriVariables);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header(HttpHeaders.ACCEPT_CHARSET, StandardCharsets.UTF_8.name())
+                .GET()
+                .build();
 
-            return ondasCache;
+        // O timeout do HttpRequest só cobre a espera pelos cabeçalhos; o prazo abaixo vale para a troca inteira
+        long deadline = System.nanoTime() + readTimeout.toNanos();
+        HttpResponse<InputStream> response = awaitHeaders(uri,
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()));
 
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao parsear resposta de ondas do CPTEC/INPE", e);
+        InputStream body = response.body();
+        AtomicBoolean expired = new AtomicBoolean();
+        // Fechar o corpo aborta a troca e destrava o parser parado na leitura
+        ScheduledFuture<?> watchdog = bodyDeadlines.schedule(() -> {
+            expired.set(true);
+            closeQuietly(body);
+        }, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        try (body) {
+            HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+            if (status.is4xxClientError()) {
+                throw new HttpClientErrorException(status);
+            }
+            if (status.is5xxServerError()) {
+                throw new HttpServerErrorException(status);
+            }
+            try {
+                return parser.parse(body);
+            } catch (XMLStreamException | RuntimeException e) {
+                if (expired.get()) {
+                    throw new ResourceAccessException("Tempo esgotado lendo a resposta do CPTEC: " + uri);
+                }
+                throw new RuntimeException(parseErrorMessage, e);
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+
+    private HttpResponse<InputStream> awaitHeaders(URI uri, CompletableFuture<HttpResponse<InputStream>> exchange) {
+        try {
+            return exchange.get(readTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new ResourceAccessException("Tempo esgotado aguardando o CPTEC: " + uri);
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Requisição ao CPTEC interrompida: " + uri);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            IOException io = cause instanceof IOException ioException ? ioException : new IOException(cause);
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + cause.getMessage(), io);
+        }
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // A troca já está sendo abortada
         }
     }
+
+    /**
+     * Faz o GET e entrega o corpo da resposta direto ao parser, sem materializá-lo como String.
+     * Falhas de leitura continuam como erros do RestTemplate; falhas de parse são embrulhadas com a mensagem informada.
+     */
+    private <T> T fetch(String path, XmlParser<T> parser, String parseErrorMessage, Object... uriVariables) {
+        return protect(() -> restTemplate.execute(baseUrl + path, HttpMethod.GET, null, response -> {
+            try {
+                return parser.parse(response.getBody());
+            } catch (XMLStreamException | RuntimeException e) {
+                throw new RuntimeException(parseErrorMessage, e);
+            }
+        }, uriVariables));
+    }
+
+    @FunctionalInterface
+    private interface XmlParser<T> {
+        T parse(InputStream in) throws XMLStreamException;
+    }
 }
@@ -0,0 +1,136 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locks e marcadores de processamento dos agendamentos no Redis, resolvidos em lote
+ * por scripts Lua: uma ida ao Redis para reivindicar o lote e outra para liberá-lo.
+ */
+@Service
+public class RedisScheduleLockService {
+
+    private static final String LOCK_KEY_PREFIX = "notification:lock:";
+    private static final String PROCESSED_KEY_PREFIX = "notification:processed:";
+    private static final long LOCK_DURATION = 5; // minutos
+    private static final long PROCESSED_DURATION = 60; // 1 hora
+
+    private static final long CLAIMED = 1;
+    private static final long ALREADY_PROCESSED = 0;
+
+    // KEYS: pares (processedKey, lockKey) por agendamento | ARGV[1]: duração do lock em ms
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local result = {} " +
+            "for i = 1, #KEYS, 2 do " +
+            "  if redis.call('EXISTS', KEYS[i]) == 1 then " +
+            "    result[#result + 1] = 0 " +
+            "  elseif redis.call('SET', KEYS[i + 1], 'locked', 'NX', 'PX', ARGV[1]) then " +
+            "    result[#result + 1] = 1 " +
+            "  else " +
+            "    result[#result + 1] = 2 " +
+            "  end " +
+            "end " +
+            "return result",
+            List.class);
+
+    // KEYS: locks a liberar seguidos dos marcadores a gravar | ARGV[1]: qtd. de locks, ARGV[2]: TTL do marcador em s
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "local locks = tonumber(ARGV[1]) " +
+            "for i = 1, locks do redis.call('DEL', KEYS[i]) end " +
+            "for i = locks + 1, #KEYS do redis.call('SET', KEYS[i], 'processed', 'EX', ARGV[2]) end " +
+            "return locks",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisScheduleLockService(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Verifica o marcador de processamento e tenta obter o lock de todos os agendamentos do lote.
+     * @param scheduleIds agendamentos candidatos
+     * @param utcNow horário de referência (UTC) da execução
+     * @return agendamentos reivindicados, já processados nesta hora e travados por outra instância
+     */
+    public ClaimResult claim(List<UUID> scheduleIds, LocalDateTime utcNow) {
+        if (scheduleIds.isEmpty()) {
+            return new ClaimResult(List.of(), List.of(), List.of());
+        }
+
+        List<String> keys = new ArrayList<>(scheduleIds.size() * 2);
+        for (UUID id : scheduleIds) {
+            keys.add(processedKey(id, utcNow));
+            keys.add(LOCK_KEY_PREFIX + id);
+        }
+
+        List<?> result = redisTemplate.execute(CLAIM_SCRIPT, keys,
+                String.valueOf(TimeUnit.MINUTES.toMillis(LOCK_DURATION)));
+
+        List<UUID> claimed = new ArrayList<>();
+        List<UUID> alreadyProcessed = new ArrayList<>();
+        List<UUID> lockedElsewhere = new ArrayList<>();
+        for (int i = 0; i < scheduleIds.size(); i++) {
+            long outcome = ((Number) result.get(i)).longValue();
+            if (outcome == CLAIMED) {
+                claimed.add(scheduleIds.get(i));
+            } else if (outcome == ALREADY_PROCESSED) {
+                alreadyProcessed.add(scheduleIds.get(i));
+            } else {
+                lockedElsewhere.add(scheduleIds.get(i));
+            }
+        }
+        return new ClaimResult(claimed, alreadyProcessed, lockedElsewhere);
+    }
+
+    /**
+     * Consulta, numa única ida ao Redis, quais agendamentos já têm o marcador de processamento
+     * desta hora, sem tocar nos locks. Usado quando a reivindicação é feita no banco.
+     */
+    public Set<UUID> findProcessed(List<UUID> scheduleIds, LocalDateTime utcNow) {
+        if (scheduleIds.isEmpty()) {
+            return Set.of();
+        }
+
+        List<String> keys = scheduleIds.stream().map(id -> processedKey(id, utcNow)).toList();
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+
+        Set<UUID> processed = new HashSet<>();
+        for (int i = 0; values != null && i < scheduleIds.size(); i++) {
+            if (values.get(i) != null) {
+                processed.add(scheduleIds.get(i));
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Libera os locks do lote e grava o marcador dos agendamentos efetivamente enviados.
+     */
+    public void release(Collection<UUID> lockedIds, Collection<UUID> processedIds, LocalDateTime utcNow) {
+        if (lockedIds.isEmpty() && processedIds.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(lockedIds.size() + processedIds.size());
+        lockedIds.forEach(id -> keys.add(LOCK_KEY_PREFIX + id));
+        processedIds.forEach(id -> keys.add(processedKey(id, utcNow)));
+
+        redisTemplate.execute(RELEASE_SCRIPT, keys,
+                String.valueOf(lockedIds.size()), String.valueOf(PROCESSED_DURATION));
+    }
+
+    private String processedKey(UUID scheduleId, LocalDateTime utcNow) {
+        return PROCESSED_KEY_PREFIX + scheduleId + ":" + utcNow.truncatedTo(ChronoUnit.HOURS).toString();
+    }
+
+    public record ClaimResult(List<UUID> claimed, List<UUID> alreadyProcessed, List<UUID> lockedElsewhere) {
+    }
+}
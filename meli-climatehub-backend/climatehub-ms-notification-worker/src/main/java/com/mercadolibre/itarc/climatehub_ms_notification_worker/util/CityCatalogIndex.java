@@ -0,0 +1,134 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.CidadeXml;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Índice imutável do catálogo de cidades do CPTEC, por nome completo normalizado e UF.
+ * Pode ser gravado e lido de um arquivo texto ({@code id \t uf \t nome} por linha)
+ * para que o worker não dependa do CPTEC ao iniciar.
+ */
+@Slf4j
+public class CityCatalogIndex {
+
+    public static final CityCatalogIndex EMPTY = new CityCatalogIndex(List.of());
+
+    private final List<CidadeXml> cidades;
+    private final Map<String, CityCache> byNameAndUf;
+
+    private CityCatalogIndex(List<CidadeXml> cidades) {
+        // Só as cidades indexadas são mantidas, para que o snapshot grave exatamente o que o índice usa
+        List<CidadeXml> validas = new ArrayList<>(cidades.size());
+        this.byNameAndUf = new HashMap<>(cidades.size() * 2);
+        for (CidadeXml cidade : cidades) {
+            if (cidade.getId() == null || cidade.getUf() == null) {
+                continue;
+            }
+            validas.add(cidade);
+            byNameAndUf.putIfAbsent(key(cidade.getNome(), cidade.getUf()),
+                    new CityCache(cidade.getId(), cidade.getUf().toUpperCase(Locale.ROOT)));
+        }
+        this.cidades = List.copyOf(validas);
+    }
+
+    public static CityCatalogIndex of(List<CidadeXml> cidades) {
+        return new CityCatalogIndex(cidades);
+    }
+
+    /**
+     * @return a cidade ou {@code null} se não houver correspondência exata de nome e UF
+     */
+    public CityCache find(String cityName, String uf) {
+        if (cityName == null || uf == null) {
+            return null;
+        }
+        return byNameAndUf.get(key(cityName, uf));
+    }
+
+    public int size() {
+        return byNameAndUf.size();
+    }
+
+    public boolean isEmpty() {
+        return byNameAndUf.isEmpty();
+    }
+
+    /**
+     * Grava num arquivo temporário e move sobre o destino, para que uma leitura nunca veja um arquivo pela metade.
+     */
+    public void writeTo(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (CidadeXml cidade : cidades) {
+                writer.write(cidade.getId() + "\t" + cidade.getUf() + "\t" + cidade.getNome());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Linhas malformadas são ignoradas uma a uma; as demais cidades do arquivo continuam válidas.
+     */
+    public static CityCatalogIndex readFrom(Path path) throws IOException {
+        List<CidadeXml> cidades = new ArrayList<>();
+        int lineNumber = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] fields = line.split("\t", 3);
+                // "null" na UF vem de snapshots gravados antes de writeTo filtrar as cidades incompletas
+                if (fields.length != 3 || fields[1].isBlank() || "null".equals(fields[1])) {
+                    skipped++;
+                    log.debug("Linha {} do snapshot de cidades ignorada: {}", lineNumber, line);
+                    continue;
+                }
+                try {
+                    cidades.add(new CidadeXml(fields[2], fields[1], Integer.valueOf(fields[0].trim())));
+                } catch (NumberFormatException e) {
+                    skipped++;
+                    log.debug("Linha {} do snapshot de cidades com id inválido: {}", lineNumber, line);
+                }
+            }
+        }
+        if (skipped > 0) {
+            log.warn("⚠️ {} linhas malformadas ignoradas no snapshot de cidades {}", skipped, path);
+        }
+        return new CityCatalogIndex(cidades);
+    }
+
+    /**
+     * Nome completo em minúsculas, sem acentos e com espaços simples; hífen e apóstrofo são mantidos.
+     */
+    public static String normalize(String nome) {
+        if (nome == null) {
+            return "";
+        }
+        return Normalizer.normalize(nome.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("[^\\p{ASCII}]", "")
+                .replaceAll("[^a-z0-9\\s\\-']", "");
+    }
+
+    private static String key(String nome, String uf) {
+        return normalize(nome) + "|" + uf.trim().toUpperCase(Locale.ROOT);
+    }
+}
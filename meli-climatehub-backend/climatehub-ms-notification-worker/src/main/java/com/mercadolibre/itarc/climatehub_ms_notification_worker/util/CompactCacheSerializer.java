@@ -0,0 +1,95 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serializa as entradas de cache do CPTEC em CBOR com um cabeçalho de 4 bytes:
+ * {@code 0xC7 0xB0}, versão do formato e o tipo do valor. Outros tipos (ex.: {@code NullValue})
+ * continuam em serialização Java.
+ * <p>
+ * Migração: valores sem o cabeçalho (gravados antes deste serializer) são lidos com a
+ * serialização Java e regravados no formato compacto na próxima escrita. Valores com uma
+ * versão desconhecida são tratados como ausentes, para que uma instância antiga não quebre
+ * ao ler o que uma mais nova gravou.
+ */
+@Slf4j
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC_0 = (byte) 0xC7;
+    static final byte MAGIC_1 = (byte) 0xB0;
+    static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 4;
+
+    // A posição na lista é o código gravado no cabeçalho: só acrescente no final
+    private static final List<Class<?>> TYPES = List.of(CityCache.class, PrevisaoCache.class, OndasCache.class);
+
+    private final ObjectMapper mapper = CBORMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final JdkSerializationRedisSerializer fallback;
+
+    public CompactCacheSerializer(ClassLoader classLoader) {
+        this.fallback = new JdkSerializationRedisSerializer(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        int type = TYPES.indexOf(value.getClass());
+        if (type < 0) {
+            return fallback.serialize(value);
+        }
+
+        try {
+            byte[] payload = mapper.writeValueAsBytes(value);
+            byte[] bytes = new byte[HEADER_SIZE + payload.length];
+            bytes[0] = MAGIC_0;
+            bytes[1] = MAGIC_1;
+            bytes[2] = VERSION;
+            bytes[3] = (byte) type;
+            System.arraycopy(payload, 0, bytes, HEADER_SIZE, payload.length);
+            return bytes;
+        } catch (IOException e) {
+            throw new SerializationException("Erro ao serializar " + value.getClass().getSimpleName() + " em CBOR", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < HEADER_SIZE || bytes[0] != MAGIC_0 || bytes[1] != MAGIC_1) {
+            return fallback.deserialize(bytes);
+        }
+
+        int type = bytes[3];
+        if (bytes[2] != VERSION || type < 0 || type >= TYPES.size()) {
+            log.warn("⚠️ Entrada de cache com formato desconhecido (versão {}, tipo {}); tratada como ausente",
+                    bytes[2], type);
+            return null;
+        }
+
+        try {
+            return mapper.readValue(Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length), TYPES.get(type));
+        } catch (IOException e) {
+            throw new SerializationException("Erro ao ler entrada de cache em CBOR", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Anel de hash consistente com nós virtuais. Cada slot de partição pertence ao primeiro
+ * nó virtual encontrado no anel a partir do hash do slot, de forma que a entrada ou saída
+ * de um membro só move os slots vizinhos aos seus nós virtuais.
+ */
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final Set<String> members;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        this.members = Collections.unmodifiableSet(new TreeSet<>(members));
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * @return membro dono do slot, ou {@code null} se o anel estiver vazio
+     */
+    public String ownerOf(int slot) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash("slot-" + slot));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return slots, entre {@code 0} e {@code slotCount - 1}, que pertencem ao membro
+     */
+    public Set<Integer> slotsOf(String member, int slotCount) {
+        Set<Integer> slots = new TreeSet<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (member.equals(ownerOf(slot))) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo MD5 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * TTL das previsões alinhado ao calendário: uma previsão vale até a meia-noite (America/Sao_Paulo)
+ * seguinte ao dia da sua {@code atualizacao} no CPTEC, limitada a {@code maxTtl}. Previsões já
+ * vencidas (atualização de um dia anterior) ficam apenas {@code minTtl}, para serem buscadas de novo em breve.
+ */
+public class CptecCacheTtl implements RedisCacheWriter.TtlFunction {
+
+    private static final ZoneId SAO_PAULO_ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private final Duration maxTtl;
+    private final Duration minTtl;
+    private final Clock clock;
+
+    public CptecCacheTtl(Duration maxTtl, Duration minTtl) {
+        this(maxTtl, minTtl, Clock.system(SAO_PAULO_ZONE));
+    }
+
+    CptecCacheTtl(Duration maxTtl, Duration minTtl, Clock clock) {
+        this.maxTtl = maxTtl;
+        this.minTtl = minTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        LocalDate atualizacao = switch (value) {
+            case PrevisaoCache previsao -> parseDate(previsao.getAtualizacao());
+            case OndasCache ondas -> parseDate(ondas.getAtualizacao());
+            case null, default -> null;
+        };
+
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(SAO_PAULO_ZONE));
+        // Sem data conhecida, vale até a próxima meia-noite local
+        LocalDate validUntil = atualizacao != null ? atualizacao : now.toLocalDate();
+        Duration ttl = Duration.between(now, validUntil.plusDays(1).atStartOfDay(SAO_PAULO_ZONE));
+
+        if (ttl.compareTo(minTtl) < 0) {
+            return minTtl;
+        }
+        return ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.CidadeXml;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lê as respostas XML do CPTEC/INPE com StAX diretamente do stream HTTP, sem montar
+ * a resposta inteira em memória nem criar um {@code JAXBContext} por chamada.
+ * A codificação é a declarada no prólogo do XML (o CPTEC usa ISO-8859-1).
+ */
+@Component
+public class CptecXmlParser {
+
+    // Configurada uma única vez; a criação de leitores é thread-safe
+    private final XMLInputFactory inputFactory;
+
+    public CptecXmlParser() {
+        inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Resposta de {@code /listaCidades}.
+     */
+    public List<CidadeXml> parseCidades(InputStream in) throws XMLStreamException {
+        return parse(in, reader -> {
+            List<CidadeXml> cidades = new ArrayList<>();
+            forEachChild(reader, name -> {
+                if ("cidade".equals(name)) {
+                    CidadeXml cidade = new CidadeXml();
+                    forEachChild(reader, field -> {
+                        switch (field) {
+                            case "nome" -> cidade.setNome(reader.getElementText());
+                            case "uf" -> cidade.setUf(reader.getElementText());
+                            case "id" -> cidade.setId(toInteger(reader.getElementText()));
+                            default -> skipElement(reader);
+                        }
+                    });
+                    cidades.add(cidade);
+                } else {
+                    skipElement(reader);
+                }
+            });
+            return cidades;
+        });
+    }
+
+    /**
+     * Resposta de {@code /cidade/{id}/previsao.xml}.
+     */
+    public PrevisaoCache parsePrevisao(InputStream in) throws XMLStreamException {
+        return parse(in, reader -> {
+            PrevisaoCache previsao = new PrevisaoCache();
+            List<PrevisaoCache.PrevisaoDia> previsoes = new ArrayList<>();
+            forEachChild(reader, name -> {
+                switch (name) {
+                    case "nome" -> previsao.setNome(reader.getElementText());
+                    case "uf" -> previsao.setUf(reader.getElementText());
+                    case "atualizacao" -> previsao.setAtualizacao(reader.getElementText());
+                    case "previsao" -> previsoes.add(readPrevisaoDia(reader));
+                    default -> skipElement(reader);
+                }
+            });
+            previsao.setPrevisoes(previsoes);
+            return previsao;
+        });
+    }
+
+    /**
+     * Resposta de {@code /cidade/{id}/dia/{dia}/ondas.xml}.
+     */
+    public OndasCache parseOndas(InputStream in) throws XMLStreamException {
+        return parse(in, reader -> {
+            OndasCache ondas = new OndasCache();
+            forEachChild(reader, name -> {
+                switch (name) {
+                    case "nome" -> ondas.setNome(reader.getElementText());
+                    case "uf" -> ondas.setUf(reader.getElementText());
+                    case "atualizacao" -> ondas.setAtualizacao(reader.getElementText());
+                    case "manha" -> ondas.setManha(readPeriodo(reader));
+                    case "tarde" -> ondas.setTarde(readPeriodo(reader));
+                    case "noite" -> ondas.setNoite(readPeriodo(reader));
+                    default -> skipElement(reader);
+                }
+            });
+            return ondas;
+        });
+    }
+
+    private PrevisaoCache.PrevisaoDia readPrevisaoDia(XMLStreamReader reader) throws XMLStreamException {
+        PrevisaoCache.PrevisaoDia dia = new PrevisaoCache.PrevisaoDia();
+        forEachChild(reader, field -> {
+            switch (field) {
+                case "dia" -> dia.setDia(reader.getElementText());
+                case "tempo" -> dia.setTempo(reader.getElementText());
+                case "maxima" -> dia.setMaxima(toInteger(reader.getElementText()));
+                case "minima" -> dia.setMinima(toInteger(reader.getElementText()));
+                case "iuv" -> dia.setIuv(toDouble(reader.getElementText()));
+                default -> skipElement(reader);
+            }
+        });
+        return dia;
+    }
+
+    private OndasCache.PrevisaoPeriodo readPeriodo(XMLStreamReader reader) throws XMLStreamException {
+        OndasCache.PrevisaoPeriodo periodo = new OndasCache.PrevisaoPeriodo();
+        forEachChild(reader, field -> {
+            switch (field) {
+                case "dia" -> periodo.setDia(reader.getElementText());
+                case "agitacao" -> periodo.setAgitacao(reader.getElementText());
+                case "altura" -> periodo.setAltura(toDouble(reader.getElementText()));
+                case "direcao" -> periodo.setDirecao(reader.getElementText());
+                case "vento" -> periodo.setVento(toDouble(reader.getElementText()));
+                case "vento_dir" -> periodo.setVentoDir(reader.getElementText());
+                default -> skipElement(reader);
+            }
+        });
+        return periodo;
+    }
+
+    private <T> T parse(InputStream in, RootReader<T> rootReader) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            reader.nextTag();
+            return rootReader.read(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Chama o handler para cada filho do elemento atual. O handler deve consumir o filho
+     * inteiro (até o seu END_ELEMENT); ao final o leitor fica no END_ELEMENT do pai.
+     */
+    private static void forEachChild(XMLStreamReader reader, ChildHandler handler) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                handler.handle(reader.getLocalName());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    // Valores numéricos inválidos viram null, como no unmarshal do JAXB
+    private static Integer toInteger(String value) {
+        try {
+            return value == null || value.isBlank() ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double toDouble(String value) {
+        try {
+            return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RootReader<T> {
+        T read(XMLStreamReader reader) throws XMLStreamException;
+    }
+
+    @FunctionalInterface
+    private interface ChildHandler {
+        void handle(String name) throws XMLStreamException;
+    }
+}
@@ -0,0 +1,47 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limitador de taxa por espaçamento fixo: cada permissão reserva o próximo intervalo livre
+ * e aguarda até ele. Reservas que cairiam após o prazo informado são recusadas sem consumir
+ * a vaga, para que o restante do backlog fique para a próxima execução.
+ */
+public class DrainRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos;
+
+    public DrainRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("A taxa deve ser positiva: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * @param deadlineNanos prazo no relógio de {@link System#nanoTime()}
+     * @return {@code true} se a permissão foi obtida até o prazo
+     */
+    public boolean tryAcquire(long deadlineNanos) {
+        long slot;
+        synchronized (this) {
+            slot = Math.max(System.nanoTime(), nextFreeNanos);
+            if (slot - deadlineNanos > 0) {
+                return false;
+            }
+            nextFreeNanos = slot + intervalNanos;
+        }
+
+        long wait;
+        while ((wait = slot - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Roda de tempo (hashed timing wheel) com resolução de 1 segundo.
+ * Cada item é guardado no bucket {@code segundo % slots}; itens com vencimento
+ * além de uma volta permanecem no bucket até a volta correta.
+ */
+public class HashedTimingWheel<T> {
+
+    private final List<List<Entry<T>>> buckets;
+    private final int slots;
+    private long cursor;
+    private int size;
+
+    public HashedTimingWheel(int slots, long startEpochSecond) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("A quantidade de slots deve ser positiva");
+        }
+        this.slots = slots;
+        this.cursor = startEpochSecond;
+        this.buckets = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Agenda um item para o segundo informado. Itens já vencidos disparam no próximo avanço.
+     */
+    public synchronized void add(T item, long dueEpochSecond) {
+        long due = Math.max(dueEpochSecond, cursor + 1);
+        buckets.get(Math.floorMod(due, slots)).add(new Entry<>(item, due));
+        size++;
+    }
+
+    /**
+     * Avança o cursor até o segundo informado e devolve os itens vencidos, em ordem de bucket.
+     */
+    public synchronized List<T> advance(long nowEpochSecond) {
+        List<T> due = new ArrayList<>();
+        if (nowEpochSecond <= cursor) {
+            return due;
+        }
+
+        // Depois de uma volta completa todos os buckets já foram visitados
+        long from = Math.max(cursor + 1, nowEpochSecond - slots + 1);
+        for (long second = from; second <= nowEpochSecond; second++) {
+            Iterator<Entry<T>> iterator = buckets.get(Math.floorMod(second, slots)).iterator();
+            while (iterator.hasNext()) {
+                Entry<T> entry = iterator.next();
+                if (entry.due() <= nowEpochSecond) {
+                    due.add(entry.item());
+                    iterator.remove();
+                    size--;
+                }
+            }
+        }
+        cursor = nowEpochSecond;
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Entry<T>(T item, long due) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache em dois níveis: um Caffeine local (L1) na frente do cache do Redis (L2).
+ * Leituras tentam o L1 e, na falta, o L2, promovendo o valor encontrado. Escritas e remoções
+ * vão para os dois níveis e são anunciadas às outras instâncias, que descartam a cópia local.
+ * As chaves do L1 são a representação em texto da chave, a mesma usada nas chaves do Redis.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final InvalidationPublisher publisher;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public TwoTierCache(String name, Cache remote,
+                        com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                        InvalidationPublisher publisher, MeterRegistry registry) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.publisher = publisher;
+        this.localHits = counter(registry, "l1", "hit");
+        this.localMisses = counter(registry, "l1", "miss");
+        this.remoteHits = counter(registry, "l2", "hit");
+        this.remoteMisses = counter(registry, "l2", "miss");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+        localMisses.increment();
+
+        ValueWrapper value = remote.get(key);
+        if (value != null) {
+            remoteHits.increment();
+            local.put(localKey, new SimpleValueWrapper(value.get()));
+        } else {
+            remoteMisses.increment();
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Valor em cache para a chave " + key + " não é do tipo " + type.getName() + ": " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value = remote.get(key, valueLoader);
+        local.put(localKey(key), new SimpleValueWrapper(value));
+        publisher.publish(name, localKey(key));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(localKey(key), new SimpleValueWrapper(value));
+        publisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.put(localKey(key), existing != null ? existing : new SimpleValueWrapper(value));
+        if (existing == null) {
+            publisher.publish(name, localKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        publisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        publisher.publish(name, localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        publisher.publish(name, null);
+        return invalidated;
+    }
+
+    /**
+     * Descarta apenas a cópia local, em resposta a uma alteração feita por outra instância.
+     * @param key chave em texto ou {@code null} para descartar todo o L1
+     */
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    public long localSize() {
+        return local.estimatedSize();
+    }
+
+    private Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Leituras do cache em dois níveis, por nível e resultado")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        /**
+         * @param key chave em texto ou {@code null} quando o cache inteiro foi limpo
+         */
+        void publish(String cacheName, String key);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Envolve o cache manager do Redis e coloca um {@link TwoTierCache} na frente dos caches
+ * configurados; os demais são servidos diretamente pelo Redis.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager remote;
+    private final Set<String> nearCacheNames;
+    private final long maximumSize;
+    private final Duration timeToLive;
+    private final TwoTierCache.InvalidationPublisher publisher;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remote, Set<String> nearCacheNames, long maximumSize, Duration timeToLive,
+                               TwoTierCache.InvalidationPublisher publisher, MeterRegistry registry) {
+        this.remote = remote;
+        this.nearCacheNames = Set.copyOf(nearCacheNames);
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        this.publisher = publisher;
+        this.registry = registry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCacheNames.contains(name)) {
+            return remote.getCache(name);
+        }
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * Aplica uma invalidação recebida de outra instância.
+     */
+    public void invalidateLocal(String cacheName, String key) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+
+        // O TTL local limita quanto tempo uma cópia pode ficar desatualizada se uma invalidação se perder
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+        TwoTierCache cache = new TwoTierCache(name, remoteCache, local, publisher, registry);
+        Gauge.builder("cache.tier.size", cache, TwoTierCache::localSize)
+                .description("Entradas no cache local (L1)")
+                .tag("cache", name)
+                .tag("tier", "l1")
+                .register(registry);
+        return cache;
+    }
+}
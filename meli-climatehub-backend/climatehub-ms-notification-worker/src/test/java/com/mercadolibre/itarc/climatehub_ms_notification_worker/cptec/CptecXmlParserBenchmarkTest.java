@@ -0,0 +1,79 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.cptec;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.PrevisaoXmlResponse;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CptecXmlParser;
+import jakarta.xml.bind.JAXBContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Comparação de tempo de parse, apenas informativa: não faz asserções de tempo.
+ * Desligado por padrão; rodar com {@code mvn test -Dtest=CptecXmlParserBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("CptecXmlParser Benchmark")
+class CptecXmlParserBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CptecXmlParserBenchmarkTest.class);
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    private final CptecXmlParser parser = new CptecXmlParser();
+
+    @Test
+    @DisplayName("Benchmark: StAX em stream x JAXBContext por chamada x JAXBContext compartilhado")
+    void benchmark() throws Exception {
+        byte[] body = fixture("previsao.xml");
+        JAXBContext sharedContext = JAXBContext.newInstance(PrevisaoXmlResponse.class);
+
+        // Caminho anterior: corpo como String e um JAXBContext novo a cada chamada
+        long perCallContext = measure(() -> {
+            String xml = new String(body, StandardCharsets.ISO_8859_1);
+            JAXBContext.newInstance(PrevisaoXmlResponse.class).createUnmarshaller().unmarshal(new StringReader(xml));
+        });
+        long sharedJaxb = measure(() -> {
+            String xml = new String(body, StandardCharsets.ISO_8859_1);
+            sharedContext.createUnmarshaller().unmarshal(new StringReader(xml));
+        });
+        long stax = measure(() -> parser.parsePrevisao(new ByteArrayInputStream(body)));
+
+        logger.info("Parse de previsao.xml ({} iterações): JAXBContext por chamada = {} µs/op, "
+                        + "JAXBContext compartilhado = {} µs/op, StAX = {} µs/op",
+                ITERATIONS, perCallContext / 1000, sharedJaxb / 1000, stax / 1000);
+    }
+
+    private long measure(ThrowingRunnable runnable) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            runnable.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            runnable.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private byte[] fixture(String name) throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/cptec/" + name)) {
+            assertNotNull(in, "Fixture não encontrada: " + name);
+            return in.readAllBytes();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,109 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.cptec;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.CidadeXml;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.PrevisaoXmlResponse;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CptecXmlParser;
+import jakarta.xml.bind.JAXBContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CptecXmlParser Tests")
+class CptecXmlParserTest {
+
+    private final CptecXmlParser parser = new CptecXmlParser();
+
+    @Test
+    @DisplayName("Deve ler a previsão do tempo com acentos em ISO-8859-1")
+    void deveLerPrevisao() throws Exception {
+        PrevisaoCache previsao = parser.parsePrevisao(fixture("previsao.xml"));
+
+        assertEquals("São Paulo", previsao.getNome());
+        assertEquals("SP", previsao.getUf());
+        assertEquals("2025-06-04", previsao.getAtualizacao());
+        assertEquals(4, previsao.getPrevisoes().size());
+
+        PrevisaoCache.PrevisaoDia hoje = previsao.getPrevisoes().get(0);
+        assertEquals("2025-06-04", hoje.getDia());
+        assertEquals("pn", hoje.getTempo());
+        assertEquals(25, hoje.getMaxima());
+        assertEquals(15, hoje.getMinima());
+        assertEquals(8.0, hoje.getIuv());
+    }
+
+    @Test
+    @DisplayName("Deve ler a previsão de ondas dos três períodos")
+    void deveLerOndas() throws Exception {
+        OndasCache ondas = parser.parseOndas(fixture("ondas.xml"));
+
+        assertEquals("Rio de Janeiro", ondas.getNome());
+        assertEquals("RJ", ondas.getUf());
+        assertEquals("Fraco", ondas.getManha().getAgitacao());
+        assertEquals(1.2, ondas.getTarde().getAltura());
+        assertEquals("SE", ondas.getTarde().getVentoDir());
+        assertEquals(4.2, ondas.getNoite().getVento());
+    }
+
+    @Test
+    @DisplayName("Deve ler a lista de cidades")
+    void deveLerCidades() throws Exception {
+        List<CidadeXml> cidades = parser.parseCidades(fixture("cidades.xml"));
+
+        assertEquals(3, cidades.size());
+        assertEquals("São Paulo", cidades.get(0).getNome());
+        assertEquals("SP", cidades.get(0).getUf());
+        assertEquals(244, cidades.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar elementos desconhecidos e números inválidos")
+    void deveIgnorarElementosDesconhecidos() throws Exception {
+        String xml = "<cidade><nome>Santos</nome><extra><x>1</x></extra>"
+                + "<previsao><dia>2025-06-04</dia><maxima>--</maxima><iuv>5.0</iuv></previsao></cidade>";
+
+        PrevisaoCache previsao = parser.parsePrevisao(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("Santos", previsao.getNome());
+        assertEquals(1, previsao.getPrevisoes().size());
+        assertNull(previsao.getPrevisoes().get(0).getMaxima());
+        assertEquals(5.0, previsao.getPrevisoes().get(0).getIuv());
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado do unmarshal JAXB")
+    void deveEquivalerAoJaxb() throws Exception {
+        PrevisaoXmlResponse jaxb = (PrevisaoXmlResponse) JAXBContext.newInstance(PrevisaoXmlResponse.class)
+                .createUnmarshaller().unmarshal(new StringReader(fixtureAsString("previsao.xml")));
+        PrevisaoCache stax = parser.parsePrevisao(fixture("previsao.xml"));
+
+        assertEquals(jaxb.getNome(), stax.getNome());
+        assertEquals(jaxb.getPrevisoes().size(), stax.getPrevisoes().size());
+        for (int i = 0; i < jaxb.getPrevisoes().size(); i++) {
+            assertEquals(jaxb.getPrevisoes().get(i).getDia(), stax.getPrevisoes().get(i).getDia());
+            assertEquals(jaxb.getPrevisoes().get(i).getMaxima(), stax.getPrevisoes().get(i).getMaxima());
+            assertEquals(jaxb.getPrevisoes().get(i).getIuv(), stax.getPrevisoes().get(i).getIuv());
+        }
+    }
+
+    private InputStream fixture(String name) {
+        InputStream in = getClass().getResourceAsStream("/cptec/" + name);
+        assertNotNull(in, "Fixture não encontrada: " + name);
+        return in;
+    }
+
+    private String fixtureAsString(String name) throws IOException {
+        try (InputStream in = fixture(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.springframework.http.HttpHeaders;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -36,7 +37,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
         classes = {
                 CptecIT.TestConfig.class,
                 TestRedisConfiguration.class,
-                com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.CptecServiceImpl.class
+                com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.CptecServiceImpl.class,
+                com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CityCatalogService.class,
+                com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CptecXmlParser.class
         }
 )
 @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class})
@@ -311,6 +314,29 @@ public class CptecIT {
         );
     }
 
+    @Test
+    @DisplayName("Deve buscar previsões de forma assíncrona compartilhando o cache da versão síncrona")
+    void deveBuscarPrevisoesDeFormaAssincrona() {
+        // Arrange
+        List<Integer> cityIds = List.of(244, 241, 227); // São Paulo, Rio de Janeiro, Salvador
+
+        // Act - Busca sobreposta das três cidades
+        List<CompletableFuture<PrevisaoCache>> futures = cityIds.stream()
+                .map(cptecService::getPrevisaoAsync)
+                .toList();
+        List<PrevisaoCache> results = futures.stream().map(CompletableFuture::join).toList();
+
+        // Assert
+        results.forEach(result -> {
+            assertNotNull(result, "A previsão não deveria ser null");
+            assertFalse(result.getPrevisoes().isEmpty(), "A lista de previsões não deveria estar vazia");
+        });
+        assertNotNull(cacheManager.getCache("previsaoCache").get(244),
+                "A previsão assíncrona deveria ficar no mesmo cache da síncrona");
+        assertEquals(results.get(0).getAtualizacao(), cptecService.getPrevisao(244).getAtualizacao(),
+                "A chamada síncrona deveria reaproveitar o valor em cache");
+    }
+
     @Test
     @DisplayName("Deve retornar previsão com temperaturas válidas")
     void deveRetornarPrevisaoComTemperaturasValidas() {
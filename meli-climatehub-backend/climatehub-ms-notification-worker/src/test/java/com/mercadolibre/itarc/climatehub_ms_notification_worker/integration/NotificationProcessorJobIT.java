@@ -22,6 +22,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.time.*;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -91,6 +92,7 @@ public class NotificationProcessorJobIT {
         previsao.setPrevisoes(Collections.singletonList(previsaoDia));
 
         when(cptecService.getPrevisao(any())).thenReturn(previsao);
+        when(cptecService.getPrevisaoAsync(any())).thenReturn(CompletableFuture.completedFuture(previsao));
 
         // When
         notificationProcessorJob.execute(jobExecutionContext);
@@ -150,6 +152,7 @@ public class NotificationProcessorJobIT {
         previsao.setPrevisoes(Collections.singletonList(previsaoDia));
 
         when(cptecService.getPrevisao(any())).thenReturn(previsao);
+        when(cptecService.getPrevisaoAsync(any())).thenReturn(CompletableFuture.completedFuture(previsao));
 
         // When
         notificationProcessorJob.execute(jobExecutionContext);
@@ -208,6 +211,7 @@ public class NotificationProcessorJobIT {
         previsao.setPrevisoes(Collections.singletonList(previsaoDia));
 
         when(cptecService.getPrevisao(any())).thenReturn(previsao);
+        when(cptecService.getPrevisaoAsync(any())).thenReturn(CompletableFuture.completedFuture(previsao));
 
         // When
         notificationProcessorJob.execute(jobExecutionContext);
@@ -0,0 +1,164 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.integration;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.feign.client.NotificationFeignClient;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.CityRequestDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CptecService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Status pelo Feign para verificar o envio em lote no NotificationStatusReporter
+@SpringBootTest(properties = {
+        "worker.listener.batch.enabled=true",
+        "worker.status-updates.transport=http"
+})
+@Testcontainers
+public class NotificationWorkerBatchListenerIT {
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.0")
+            .withExposedPorts(6379);
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @MockBean
+    private CptecService cptecService;
+
+    @MockBean
+    private NotificationFeignClient notificationClient;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getFirstMappedPort);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @BeforeEach
+    void setUp() {
+        scheduleRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCreateSchedulesInBatchAndRejectUnknownCities() throws Exception {
+        // Given
+        CityCache saoPaulo = new CityCache();
+        saoPaulo.setCityId(244);
+        saoPaulo.setUf("SP");
+
+        when(cptecService.getCityIdAsync(eq("São Paulo"), eq("SP")))
+                .thenReturn(CompletableFuture.completedFuture(saoPaulo));
+        when(cptecService.getCityIdAsync(eq("Cidade Inexistente"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        CityRequestDTO first = request("São Paulo", "SP", "08:00");
+        CityRequestDTO second = request("São Paulo", "SP", "18:30");
+        CityRequestDTO unknown = request("Cidade Inexistente", "SP", "09:00");
+
+        // When
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, first);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, second);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, unknown);
+        Thread.sleep(3000); // Aguarda o lote ser entregue após o receive-timeout
+
+        // Then
+        List<ScheduleEntity> schedules = scheduleRepository.findAll();
+        assertEquals(2, schedules.size());
+        assertTrue(schedules.stream().allMatch(schedule -> "244".equals(schedule.getCityId())));
+
+        // A cidade repetida é resolvida uma única vez
+        verify(cptecService, times(1)).getCityIdAsync(eq("São Paulo"), eq("SP"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationStatusUpdateDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationClient, atLeastOnce()).updateStatuses(captor.capture());
+        Map<UUID, NotificationStatus> statuses = captor.getAllValues().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(NotificationStatusUpdateDTO::getNotificationId,
+                        NotificationStatusUpdateDTO::getStatus));
+
+        assertEquals(NotificationStatus.EXECUTED, statuses.get(first.getNotificationId()));
+        assertEquals(NotificationStatus.EXECUTED, statuses.get(second.getNotificationId()));
+        assertEquals(NotificationStatus.FAILED, statuses.get(unknown.getNotificationId()));
+        verify(notificationClient, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void shouldNotDuplicateScheduleWhenRequestIsRedelivered() throws Exception {
+        // Given
+        CityCache saoPaulo = new CityCache();
+        saoPaulo.setCityId(244);
+        saoPaulo.setUf("SP");
+        when(cptecService.getCityIdAsync(eq("São Paulo"), eq("SP")))
+                .thenReturn(CompletableFuture.completedFuture(saoPaulo));
+
+        CityRequestDTO request = request("São Paulo", "SP", "08:00");
+
+        // When: o mesmo pedido chega duas vezes, em lotes separados
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, request);
+        Thread.sleep(3000);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, request);
+        Thread.sleep(3000);
+
+        // Then
+        List<ScheduleEntity> schedules = scheduleRepository.findAll();
+        assertEquals(1, schedules.size());
+        assertEquals(request.getNotificationId(), schedules.get(0).getNotificationId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationStatusUpdateDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationClient, atLeastOnce()).updateStatuses(captor.capture());
+        assertTrue(captor.getAllValues().stream()
+                .flatMap(List::stream)
+                .allMatch(status -> status.getStatus() == NotificationStatus.EXECUTED));
+    }
+
+    private static CityRequestDTO request(String cityName, String uf, String time) {
+        CityRequestDTO request = new CityRequestDTO();
+        request.setNotificationId(UUID.randomUUID());
+        request.setUserId(UUID.randomUUID());
+        request.setCityName(cityName);
+        request.setUf(uf);
+        request.setScheduleType(ScheduleType.DAILY);
+        request.setTime(time);
+        return request;
+    }
+}
@@ -2,15 +2,18 @@ package com.mercadolibre.itarc.climatehub_ms_notification_worker.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.CityRequestDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
 import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CptecService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -23,6 +26,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -235,4 +240,47 @@ public class NotificationWorkerListenerIT {
         // Then
         assertTrue(scheduleRepository.findAll().isEmpty());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldPublishStatusEventsToStatusQueue() throws Exception {
+        // Given
+        CityRequestDTO created = new CityRequestDTO();
+        created.setNotificationId(UUID.randomUUID());
+        created.setUserId(UUID.randomUUID());
+        created.setCityName("São Paulo");
+        created.setUf("SP");
+        created.setScheduleType(ScheduleType.DAILY);
+        created.setTime("08:00");
+
+        CityRequestDTO unknown = new CityRequestDTO();
+        unknown.setNotificationId(UUID.randomUUID());
+        unknown.setUserId(UUID.randomUUID());
+        unknown.setCityName("Cidade Inexistente");
+        unknown.setUf("XX");
+        unknown.setScheduleType(ScheduleType.DAILY);
+        unknown.setTime("08:00");
+
+        CityCache cityCache = new CityCache();
+        cityCache.setCityId(123);
+        cityCache.setUf("SP");
+
+        when(cptecService.getCityId(created.getCityName(), created.getUf())).thenReturn(cityCache);
+        when(cptecService.getCityId(unknown.getCityName(), unknown.getUf())).thenReturn(null);
+
+        // When
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, created);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, unknown);
+        Thread.sleep(2000); // Aguarda o processamento
+
+        // Then: o status vai como evento na fila, sem chamada HTTP ao ms-notification
+        Map<UUID, NotificationStatus> statuses = new HashMap<>();
+        Message event;
+        while ((event = rabbitTemplate.receive(RabbitMQConfig.NOTIFICATION_STATUS_QUEUE, 1000)) != null) {
+            NotificationStatusUpdateDTO update = objectMapper.readValue(event.getBody(), NotificationStatusUpdateDTO.class);
+            statuses.put(update.getNotificationId(), update.getStatus());
+        }
+
+        assertEquals(NotificationStatus.EXECUTED, statuses.get(created.getNotificationId()));
+        assertEquals(NotificationStatus.FAILED, statuses.get(unknown.getNotificationId()));
+    }
+}
@@ -0,0 +1,360 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.integration;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.NotificationDispatchService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.NotificationDispatchService.DispatchSummary;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.ScheduleClaimService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.WorkerMembershipService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Reivindicação de agendamentos no banco ({@code worker.claim.mode=database}) contra um PostgreSQL real,
+ * já que {@code FOR UPDATE SKIP LOCKED} e {@code RETURNING} não existem no H2.
+ * O despacho é simulado: cada lote reivindicado é apenas registrado com o dono da reivindicação.
+ */
+@SpringBootTest(properties = {
+        "worker.claim.mode=database",
+        "worker.claim.batch-size=5",
+        "worker.claim.lease-seconds=300",
+        "spring.quartz.auto-startup=false"
+})
+@Testcontainers
+public class ScheduleClaimServiceIT {
+
+    private static final int BATCH_SIZE = 5;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.0")
+            .withExposedPorts(6379);
+
+    @Autowired
+    private ScheduleClaimService scheduleClaimService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private NotificationDispatchService notificationDispatchService;
+
+    @SpyBean
+    private WorkerMembershipService workerMembershipService;
+
+    // Lotes entregues ao despacho, na ordem em que foram reivindicados
+    private final List<List<ScheduleEntity>> dispatched = new CopyOnWriteArrayList<>();
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @BeforeEach
+    void setUp() {
+        scheduleRepository.deleteAll();
+        dispatched.clear();
+        // Cada thread do teste faz o papel de uma instância diferente do worker
+        doAnswer(invocation -> Thread.currentThread().getName()).when(workerMembershipService).getMemberId();
+        onDispatch(batch -> { });
+    }
+
+    @Test
+    @DisplayName("Duas instâncias drenando ao mesmo tempo devem reivindicar conjuntos disjuntos")
+    void deveReivindicarConjuntosDisjuntosEmParalelo() throws Exception {
+        Set<UUID> due = saveDue(40);
+        // Cada instância só segue depois que a outra também estiver segurando um lote
+        CountDownLatch bothHoldingClaims = new CountDownLatch(2);
+        Map<String, Set<UUID>> claimedByOwner = new ConcurrentHashMap<>();
+        onDispatch(batch -> {
+            String owner = Thread.currentThread().getName();
+            batch.forEach(schedule -> assertEquals(owner, schedule.getClaimedBy()));
+            claimedByOwner.computeIfAbsent(owner, k -> ConcurrentHashMap.newKeySet())
+                    .addAll(batch.stream().map(ScheduleEntity::getId).toList());
+            bothHoldingClaims.countDown();
+            await(bothHoldingClaims);
+        });
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        CompletableFuture<DispatchSummary> first = drainAs("worker-a", now);
+        CompletableFuture<DispatchSummary> second = drainAs("worker-b", now);
+        DispatchSummary summaryA = first.get(30, TimeUnit.SECONDS);
+        DispatchSummary summaryB = second.get(30, TimeUnit.SECONDS);
+
+        Set<UUID> claimedA = claimedByOwner.getOrDefault("worker-a", Set.of());
+        Set<UUID> claimedB = claimedByOwner.getOrDefault("worker-b", Set.of());
+        assertFalse(claimedA.isEmpty());
+        assertFalse(claimedB.isEmpty());
+        assertTrue(claimedA.stream().noneMatch(claimedB::contains), "Agendamento reivindicado pelas duas instâncias");
+
+        Set<UUID> all = new HashSet<>(claimedA);
+        all.addAll(claimedB);
+        assertEquals(due, all);
+        assertEquals(due.size(), summaryA.schedules() + summaryB.schedules());
+        assertAllReleased(due, ScheduleStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Deve parar de reivindicar no primeiro lote incompleto")
+    void devePararNoLoteIncompleto() {
+        Set<UUID> due = saveDue(2 * BATCH_SIZE + 2);
+        Set<UUID> future = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            future.add(save(schedule(LocalDateTime.now(ZoneOffset.UTC).plusHours(1))).getId());
+        }
+
+        DispatchSummary summary = scheduleClaimService.drainDue(
+                LocalDateTime.now(ZoneOffset.UTC), LocalDateTime.now(ZoneOffset.UTC));
+
+        assertEquals(List.of(BATCH_SIZE, BATCH_SIZE, 2), dispatched.stream().map(List::size).toList());
+        assertEquals(due.size(), summary.schedules());
+        assertTrue(dispatchedIds().stream().noneMatch(future::contains));
+        assertAllReleased(due, ScheduleStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Deve devolver para ACTIVE apenas as reivindicações com lease vencido")
+    void deveDevolverLeasesVencidos() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        ScheduleEntity expired = claimed(now.minusMinutes(5), "worker-morto", now.minusMinutes(1));
+        ScheduleEntity leased = claimed(now.minusMinutes(5), "worker-vivo", now.plusMinutes(4));
+
+        scheduleClaimService.drainDue(now, now);
+
+        // O lease vencido volta para ACTIVE e é reivindicado de novo na mesma drenagem
+        assertEquals(List.of(expired.getId()), dispatchedIds());
+        assertAllReleased(Set.of(expired.getId()), ScheduleStatus.ACTIVE);
+
+        ScheduleEntity stillLeased = scheduleRepository.findById(leased.getId()).orElseThrow();
+        assertEquals(ScheduleStatus.CLAIMED, stillLeased.getStatus());
+        assertEquals("worker-vivo", stillLeased.getClaimedBy());
+        assertNotNull(stillLeased.getLeaseExpiresAt());
+
+        assertEquals(1, scheduleRepository.releaseExpiredClaims(now.plusMinutes(5)));
+        assertEquals(ScheduleStatus.ACTIVE, scheduleRepository.findById(leased.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve liberar as reivindicações mantendo o estado gravado pelo despacho")
+    void deveLiberarMantendoEstadoDoDespacho() {
+        Set<UUID> due = saveDue(3);
+        UUID completed = due.iterator().next();
+        // Simula o batchUpdateState de um agendamento único encerrado durante o despacho
+        onDispatch(batch -> jdbcTemplate.update("UPDATE schedules SET status = 'COMPLETED' WHERE id = ?", completed));
+
+        scheduleClaimService.drainDue(LocalDateTime.now(ZoneOffset.UTC), LocalDateTime.now(ZoneOffset.UTC));
+
+        assertAllReleased(Set.of(completed), ScheduleStatus.COMPLETED);
+        Set<UUID> others = new HashSet<>(due);
+        others.remove(completed);
+        assertAllReleased(others, ScheduleStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Deve despachar por id apenas os agendamentos livres")
+    void deveDespacharPorIdApenasLivres() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        ScheduleEntity free = save(schedule(now));
+        ScheduleEntity leased = claimed(now, "worker-vivo", now.plusMinutes(4));
+        ScheduleEntity completed = schedule(now);
+        completed.setStatus(ScheduleStatus.COMPLETED);
+        save(completed);
+
+        scheduleClaimService.dispatchByIds(List.of(free.getId(), leased.getId(), completed.getId()), now);
+
+        assertEquals(List.of(free.getId()), dispatchedIds());
+        assertAllReleased(Set.of(free.getId()), ScheduleStatus.ACTIVE);
+        assertEquals("worker-vivo", scheduleRepository.findById(leased.getId()).orElseThrow().getClaimedBy());
+    }
+
+    @Test
+    @DisplayName("Não deve reenviar na mesma hora o agendamento já processado que não avançou")
+    void naoDeveReenviarAgendamentoJaProcessadoNaHora() {
+        Set<UUID> due = saveDue(3);
+        // Simula a falha na previsão: processado nesta hora, mas sem avançar o próximo horário
+        doAnswer(invocation -> {
+            List<ScheduleEntity> batch = invocation.getArgument(0);
+            Set<UUID> processed = invocation.getArgument(1);
+            dispatched.add(new ArrayList<>(batch));
+            batch.forEach(schedule -> processed.add(schedule.getId()));
+            return new DispatchSummary(batch.size(), Set.of(), 0, 0, 0);
+        }).when(notificationDispatchService).dispatchClaimed(anyList(), anySet());
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        scheduleClaimService.drainDue(now, now);
+        assertEquals(due, new HashSet<>(dispatchedIds()));
+        assertAllReleased(due, ScheduleStatus.ACTIVE);
+
+        dispatched.clear();
+        DispatchSummary summary = scheduleClaimService.drainDue(now, now);
+
+        assertTrue(dispatched.isEmpty());
+        assertEquals(0, summary.schedules());
+        assertAllReleased(due, ScheduleStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o estado em lote apenas sobre agendamentos ativos ou reivindicados")
+    void deveGravarEstadoEmLoteSemSobrescreverFinalizados() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        ScheduleEntity active = save(schedule(now.minusMinutes(1)));
+        ScheduleEntity claimed = claimed(now.minusMinutes(1), "worker-a", now.plusMinutes(4));
+        ScheduleEntity completed = schedule(now.minusMinutes(1));
+        completed.setStatus(ScheduleStatus.COMPLETED);
+        save(completed);
+        ScheduleEntity failed = schedule(now.minusMinutes(1));
+        failed.setStatus(ScheduleStatus.ERROR);
+        save(failed);
+
+        // Cópias em memória com o estado a gravar; as duas últimas estão desatualizadas em relação ao banco
+        LocalDateTime next = now.plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        active.setNextExecution(next);
+        active.setAuthToken("token-renovado");
+        claimed.setStatus(ScheduleStatus.COMPLETED);
+        completed.setStatus(ScheduleStatus.ACTIVE);
+        completed.setNextExecution(next);
+        failed.setStatus(ScheduleStatus.ACTIVE);
+        failed.setNextExecution(next);
+
+        scheduleRepository.batchUpdateState(List.of(active, claimed, completed, failed));
+
+        ScheduleEntity savedActive = scheduleRepository.findById(active.getId()).orElseThrow();
+        assertEquals(ScheduleStatus.ACTIVE, savedActive.getStatus());
+        assertEquals(next, savedActive.getNextExecution());
+        assertEquals("token-renovado", savedActive.getAuthToken());
+
+        assertEquals(ScheduleStatus.COMPLETED, scheduleRepository.findById(claimed.getId()).orElseThrow().getStatus());
+
+        ScheduleEntity savedCompleted = scheduleRepository.findById(completed.getId()).orElseThrow();
+        assertEquals(ScheduleStatus.COMPLETED, savedCompleted.getStatus());
+        assertNotEquals(next, savedCompleted.getNextExecution());
+
+        ScheduleEntity savedFailed = scheduleRepository.findById(failed.getId()).orElseThrow();
+        assertEquals(ScheduleStatus.ERROR, savedFailed.getStatus());
+        assertNotEquals(next, savedFailed.getNextExecution());
+    }
+
+    private void onDispatch(Consumer<List<ScheduleEntity>> action) {
+        doAnswer(invocation -> {
+            List<ScheduleEntity> batch = invocation.getArgument(0);
+            dispatched.add(new ArrayList<>(batch));
+            if (!batch.isEmpty()) {
+                action.accept(batch);
+            }
+            return new DispatchSummary(batch.size(), Set.of(), 0, 0, 0);
+        }).when(notificationDispatchService).dispatchClaimed(anyList(), anySet());
+    }
+
+    private CompletableFuture<DispatchSummary> drainAs(String owner, LocalDateTime now) {
+        CompletableFuture<DispatchSummary> result = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                result.complete(scheduleClaimService.drainDue(now, now));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, owner).start();
+        return result;
+    }
+
+    private List<UUID> dispatchedIds() {
+        return dispatched.stream().flatMap(List::stream).map(ScheduleEntity::getId).toList();
+    }
+
+    private void assertAllReleased(Set<UUID> ids, ScheduleStatus expectedStatus) {
+        for (ScheduleEntity schedule : scheduleRepository.findAllById(ids)) {
+            assertEquals(expectedStatus, schedule.getStatus());
+            assertNull(schedule.getClaimedBy());
+            assertNull(schedule.getLeaseExpiresAt());
+        }
+    }
+
+    private Set<UUID> saveDue(int count) {
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(save(schedule(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1 + i))).getId());
+        }
+        return ids;
+    }
+
+    private ScheduleEntity claimed(LocalDateTime nextExecution, String owner, LocalDateTime leaseExpiresAt) {
+        ScheduleEntity schedule = schedule(nextExecution);
+        schedule.setStatus(ScheduleStatus.CLAIMED);
+        schedule.setClaimedBy(owner);
+        schedule.setLeaseExpiresAt(leaseExpiresAt);
+        return save(schedule);
+    }
+
+    private ScheduleEntity save(ScheduleEntity schedule) {
+        return scheduleRepository.save(schedule);
+    }
+
+    private static ScheduleEntity schedule(LocalDateTime nextExecution) {
+        return ScheduleEntity.builder()
+                .notificationId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .cityId("244")
+                .cityName("São Paulo")
+                .uf("SP")
+                .scheduleType(ScheduleType.DAILY)
+                .scheduleTime(LocalTime.of(8, 0))
+                .nextExecution(nextExecution)
+                .status(ScheduleStatus.ACTIVE)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "A outra instância não reivindicou nenhum lote");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * CPTEC falso para testes de carga: serve os XMLs de {@code src/test/resources/cptec} com latência
+ * log-normal e uma fração configurável de respostas 503, sem depender da API real.
+ */
+class CptecStandIn {
+
+    private static final String CONTENT_TYPE = "text/xml; charset=ISO-8859-1";
+
+    private final WireMockServer server;
+
+    CptecStandIn(long medianLatencyMs, double latencySigma, double errorRate) {
+        server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .disableRequestJournal()
+                .extensions(new FaultInjector(errorRate)));
+        server.start();
+
+        byte[] cidades = fixture("cptec/cidades.xml");
+        byte[] previsao = fixture("cptec/previsao.xml");
+        byte[] ondas = fixture("cptec/ondas.xml");
+
+        server.stubFor(get(urlPathEqualTo("/listaCidades"))
+                .willReturn(xml(cidades, medianLatencyMs, latencySigma)));
+        server.stubFor(get(urlPathMatching("/cidade/\\d+/previsao\\.xml"))
+                .willReturn(xml(previsao, medianLatencyMs, latencySigma)));
+        server.stubFor(get(urlPathMatching("/cidade/\\d+/dia/\\d+/ondas\\.xml"))
+                .willReturn(xml(ondas, medianLatencyMs, latencySigma)));
+    }
+
+    String baseUrl() {
+        return server.baseUrl();
+    }
+
+    void stop() {
+        server.stop();
+    }
+
+    private static ResponseDefinitionBuilder xml(byte[] body, long medianLatencyMs, double latencySigma) {
+        ResponseDefinitionBuilder response = aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", CONTENT_TYPE)
+                .withBody(body);
+        return medianLatencyMs > 0 ? response.withLogNormalRandomDelay(medianLatencyMs, latencySigma) : response;
+    }
+
+    private static byte[] fixture(String path) {
+        try (InputStream in = CptecStandIn.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture não encontrada: " + path);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Troca uma fração das respostas por 503, como o CPTEC faz quando está sobrecarregado.
+     */
+    private static class FaultInjector implements ResponseDefinitionTransformerV2 {
+
+        private final double errorRate;
+
+        FaultInjector(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                return aResponse().withStatus(503).withBody("Service Unavailable").build();
+            }
+            return serveEvent.getResponseDefinition();
+        }
+
+        @Override
+        public String getName() {
+            return "cptec-fault-injector";
+        }
+    }
+}
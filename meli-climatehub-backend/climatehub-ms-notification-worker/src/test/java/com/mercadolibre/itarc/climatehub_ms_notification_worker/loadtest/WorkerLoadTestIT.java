@@ -0,0 +1,297 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.loadtest;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.feign.client.NotificationFeignClient;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.job.NotificationProcessorJob;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.CityRequestDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Teste de carga do worker contra RabbitMQ e Redis reais e um CPTEC falso ({@link CptecStandIn}).
+ * Fica desligado no build normal; para executar:
+ *
+ * <pre>
+ * mvn test -Dtest=WorkerLoadTestIT -Dloadtest=true \
+ *     -Dloadtest.schedules=20000 -Dloadtest.cities=500 \
+ *     -Dloadtest.cptec.median-latency-ms=150 -Dloadtest.cptec.error-rate=0.02
+ * </pre>
+ *
+ * Cada cenário registra no log a vazão, o atraso de entrega (p50/p99) e o uso de CPU, heap e threads.
+ */
+// Status pelo Feign (mockado): a chamada de cada pedido marca o fim do seu processamento
+@SpringBootTest(properties = "worker.status-updates.transport=http")
+@Testcontainers
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class WorkerLoadTestIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerLoadTestIT.class);
+
+    private static final int SCHEDULES = Integer.getInteger("loadtest.schedules", 20_000);
+    private static final int CITIES = Integer.getInteger("loadtest.cities", 500);
+    private static final int MESSAGES = Integer.getInteger("loadtest.messages", 5_000);
+    private static final long TIMEOUT_SECONDS = Long.getLong("loadtest.timeout-seconds", 600);
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    private static final CptecStandIn cptec = new CptecStandIn(
+            Long.getLong("loadtest.cptec.median-latency-ms", 150),
+            Double.parseDouble(System.getProperty("loadtest.cptec.latency-sigma", "0.4")),
+            Double.parseDouble(System.getProperty("loadtest.cptec.error-rate", "0.02")));
+
+    @Container
+    static RabbitMQContainer rabbitMQ = new RabbitMQContainer("rabbitmq:3.11-management")
+            .withExposedPorts(5672, 15672);
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.0")
+            .withExposedPorts(6379);
+
+    @Autowired
+    private NotificationProcessorJob notificationProcessorJob;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private NotificationFeignClient notificationClient;
+
+    @MockBean
+    private JobExecutionContext jobExecutionContext;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", rabbitMQ::getHost);
+        registry.add("spring.rabbitmq.port", rabbitMQ::getFirstMappedPort);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("cptec.base-url", cptec::baseUrl);
+        registry.add("worker.city-catalog.snapshot-path",
+                () -> Path.of(System.getProperty("java.io.tmpdir"), "loadtest-cptec-cidades.tsv").toString());
+        // Um log por agendamento distorceria a medição
+        registry.add("logging.level.com.mercadolibre.itarc.climatehub_ms_notification_worker", () -> "WARN");
+    }
+
+    @AfterAll
+    static void stopCptec() {
+        cptec.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        scheduleRepository.deleteAll();
+    }
+
+    @Test
+    void notificationProcessorJobThroughput() {
+        // Given: agendamentos diários já vencidos, espalhados entre as cidades
+        seedDueSchedules(SCHEDULES, CITIES);
+        ResourceSnapshot before = ResourceSnapshot.take();
+        double handledBefore = handledSchedules();
+        long start = System.nanoTime();
+
+        // When: o teste aciona o job até drenar o backlog (o Quartz também pode acioná-lo em paralelo)
+        long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (handledSchedules() - handledBefore < SCHEDULES && System.nanoTime() < deadline) {
+            notificationProcessorJob.execute(jobExecutionContext);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        // Then
+        double handled = handledSchedules() - handledBefore;
+        Timer lag = meterRegistry.get("notification.delivery.lag").timer();
+        report("NotificationProcessorJob", (long) handled, elapsedNanos,
+                percentile(lag, 0.5), percentile(lag, 0.99), before, ResourceSnapshot.take());
+
+        assertTrue(handled >= SCHEDULES,
+                "Backlog não drenado em " + TIMEOUT_SECONDS + "s: " + (long) handled + "/" + SCHEDULES);
+    }
+
+    @Test
+    void notificationWorkerListenerThroughput() throws Exception {
+        // Given: o status final de cada pedido marca o fim do processamento
+        Map<UUID, Long> publishedAt = new ConcurrentHashMap<>();
+        Map<UUID, Long> completedAt = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            completedAt.putIfAbsent(invocation.getArgument(0), System.nanoTime());
+            return null;
+        }).when(notificationClient).updateStatus(any(), any());
+
+        ResourceSnapshot before = ResourceSnapshot.take();
+        long start = System.nanoTime();
+
+        // When
+        for (int i = 0; i < MESSAGES; i++) {
+            CityRequestDTO request = new CityRequestDTO();
+            request.setNotificationId(UUID.randomUUID());
+            request.setUserId(UUID.randomUUID());
+            request.setCityName("São Paulo");
+            request.setUf("SP");
+            request.setScheduleType(ScheduleType.DAILY);
+            request.setTime(randomTime());
+
+            publishedAt.put(request.getNotificationId(), System.nanoTime());
+            rabbitTemplate.convertAndSend(RabbitMQConfig.NOTIFICATION_QUEUE, request);
+        }
+
+        long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (completedAt.size() < MESSAGES && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        // Then
+        long[] lags = completedAt.entrySet().stream()
+                .mapToLong(entry -> entry.getValue() - publishedAt.get(entry.getKey()))
+                .sorted()
+                .toArray();
+        report("NotificationWorkerListener", lags.length, elapsedNanos,
+                percentile(lags, 0.5), percentile(lags, 0.99), before, ResourceSnapshot.take());
+
+        assertEquals(MESSAGES, completedAt.size(), "Pedidos não processados em " + TIMEOUT_SECONDS + "s");
+        assertEquals(MESSAGES, scheduleRepository.count());
+    }
+
+    private void seedDueSchedules(int total, int cities) {
+        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+        List<ScheduleEntity> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < total; i++) {
+            ScheduleEntity schedule = new ScheduleEntity();
+            schedule.setNotificationId(UUID.randomUUID());
+            schedule.setUserId(UUID.randomUUID());
+            schedule.setCityId(String.valueOf(1_000 + i % cities));
+            schedule.setCityName("São Paulo");
+            schedule.setUf("SP");
+            schedule.setScheduleType(ScheduleType.DAILY);
+            schedule.setScheduleTime(LocalTime.of(8, 0));
+            // Vencidos no último minuto, para o atraso medido refletir o worker e não o seed
+            schedule.setNextExecution(utcNow.minusSeconds(ThreadLocalRandom.current().nextInt(60)));
+            schedule.setStatus(ScheduleStatus.ACTIVE);
+            batch.add(schedule);
+
+            if (batch.size() == SEED_BATCH_SIZE) {
+                scheduleRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        scheduleRepository.saveAll(batch);
+        logger.info("🌱 {} agendamentos criados para {} cidades", total, cities);
+    }
+
+    private double handledSchedules() {
+        return meterRegistry.get("notification.dispatch.schedules").counters().stream()
+                .filter(counter -> {
+                    String outcome = counter.getId().getTag("outcome");
+                    return "sent".equals(outcome) || "failed".equals(outcome);
+                })
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        return Arrays.stream(timer.takeSnapshot().percentileValues())
+                .filter(value -> value.percentile() == percentile)
+                .mapToDouble(value -> value.value(TimeUnit.MILLISECONDS))
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static String randomTime() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%02d:%02d", random.nextInt(24), random.nextInt(60));
+    }
+
+    private static void report(String scenario, long handled, long elapsedNanos, double p50Ms, double p99Ms,
+                               ResourceSnapshot before, ResourceSnapshot after) {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        double cpuSeconds = (after.cpuNanos() - before.cpuNanos()) / 1_000_000_000.0;
+        logger.info("""
+
+                📈 {}
+                   processados: {} em {}s ({} /s)
+                   atraso de entrega: p50 {} ms, p99 {} ms
+                   CPU: {}s ({} núcleos em média)
+                   heap: {} MB -> {} MB (máx. {} MB)
+                   threads: {} -> {} (pico {})""",
+                scenario,
+                handled, format(elapsedSeconds), format(handled / elapsedSeconds),
+                format(p50Ms), format(p99Ms),
+                format(cpuSeconds), format(cpuSeconds / elapsedSeconds),
+                before.heapUsedMb(), after.heapUsedMb(), after.heapMaxMb(),
+                before.threads(), after.threads(), after.peakThreads());
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+
+    private record ResourceSnapshot(long cpuNanos, long heapUsedMb, long heapMaxMb, int threads, int peakThreads) {
+
+        static ResourceSnapshot take() {
+            long cpuNanos = ManagementFactory.getOperatingSystemMXBean()
+                    instanceof com.sun.management.OperatingSystemMXBean os ? os.getProcessCpuTime() : 0;
+            Runtime runtime = Runtime.getRuntime();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            return new ResourceSnapshot(
+                    cpuNanos,
+                    (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024),
+                    runtime.maxMemory() / (1024 * 1024),
+                    threads.getThreadCount(),
+                    threads.getPeakThreadCount());
+        }
+    }
+}
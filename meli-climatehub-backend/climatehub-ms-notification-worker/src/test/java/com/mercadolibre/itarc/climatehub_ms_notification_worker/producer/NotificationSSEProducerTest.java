@@ -0,0 +1,197 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.producer;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.WeatherNotificationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationSSEProducer Tests")
+class NotificationSSEProducerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MessageConverter messageConverter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationSSEProducer producer;
+
+    @BeforeEach
+    void setUp() {
+        when(messageConverter.toMessage(any(), any(MessageProperties.class)))
+                .thenAnswer(invocation -> new Message(new byte[0], invocation.getArgument(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        producer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve completar quando o broker confirma a mensagem")
+    void deveCompletarQuandoConfirmada() throws Exception {
+        producer = producer(4, 3, 1000);
+        onSend((attempt, correlation) -> correlation.getFuture().complete(new CorrelationData.Confirm(true, null)));
+
+        producer.sendToProcess(notification(), "token").get(1, TimeUnit.SECONDS);
+
+        verify(rabbitTemplate, times(1)).send(eq(""), eq(RabbitMQConfig.SSE_NOTIFICATION_QUEUE),
+                any(Message.class), any(CorrelationData.class));
+        assertEquals(1, counter("confirmed"));
+        assertEquals(0, outstanding());
+        assertEquals(1, meterRegistry.get("notification.sse.confirm.latency").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve republicar a mensagem recusada (nack) e completar quando confirmada")
+    void deveRepublicarAposNack() throws Exception {
+        producer = producer(4, 3, 2000);
+        onSend((attempt, correlation) ->
+                correlation.getFuture().complete(new CorrelationData.Confirm(attempt > 1, attempt > 1 ? null : "nack")));
+
+        producer.sendToProcess(notification(), null).get(2, TimeUnit.SECONDS);
+
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(1, counter("retried"));
+        assertEquals(1, counter("confirmed"));
+        assertEquals(0, outstanding());
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando todas as tentativas são recusadas")
+    void deveFalharAposEsgotarTentativas() {
+        producer = producer(4, 2, 2000);
+        onSend((attempt, correlation) -> correlation.getFuture().complete(new CorrelationData.Confirm(false, "nack")));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> producer.sendToProcess(notification(), null).get(2, TimeUnit.SECONDS));
+
+        assertInstanceOf(AmqpException.class, error.getCause());
+        verify(rabbitTemplate, times(3)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(1, counter("failed"));
+        assertEquals(0, outstanding());
+    }
+
+    @Test
+    @DisplayName("Deve falhar sem republicar a mensagem devolvida sem fila de destino")
+    void deveFalharSemRepublicarMensagemDevolvida() {
+        producer = producer(4, 3, 1000);
+        onSend((attempt, correlation) -> {
+            correlation.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+                    312, "NO_ROUTE", "", RabbitMQConfig.SSE_NOTIFICATION_QUEUE));
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> producer.sendToProcess(notification(), null).get(1, TimeUnit.SECONDS));
+
+        assertTrue(error.getCause().getMessage().contains("NO_ROUTE"));
+        verify(rabbitTemplate, times(1)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(0, counter("retried"));
+    }
+
+    @Test
+    @DisplayName("Deve falhar por tempo esgotado quando a confirmação não chega")
+    void deveFalharSemConfirmacao() {
+        producer = producer(4, 3, 100);
+        // O broker nunca confirma
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> producer.sendToProcess(notification(), null).get(2, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(0, outstanding());
+    }
+
+    @Test
+    @DisplayName("Deve segurar a publicação enquanto a janela de confirmações está cheia")
+    void deveSegurarPublicacaoComJanelaCheia() throws Exception {
+        producer = producer(1, 3, 5000);
+        List<CorrelationData> pending = new CopyOnWriteArrayList<>();
+        onSend((attempt, correlation) -> pending.add(correlation));
+
+        CompletableFuture<Void> first = producer.sendToProcess(notification(), null);
+        CompletableFuture<CompletableFuture<Void>> second =
+                CompletableFuture.supplyAsync(() -> producer.sendToProcess(notification(), null));
+
+        Thread.sleep(200);
+        assertFalse(second.isDone());
+        assertEquals(1, pending.size());
+        assertEquals(1, outstanding());
+
+        // A confirmação da primeira libera a vaga para a segunda
+        pending.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        first.get(1, TimeUnit.SECONDS);
+        CompletableFuture<Void> secondResult = second.get(1, TimeUnit.SECONDS);
+        assertEquals(2, pending.size());
+
+        pending.get(1).getFuture().complete(new CorrelationData.Confirm(true, null));
+        secondResult.get(1, TimeUnit.SECONDS);
+        assertEquals(0, outstanding());
+    }
+
+    private NotificationSSEProducer producer(int maxInFlight, int maxRetries, long confirmTimeoutMs) {
+        return new NotificationSSEProducer(rabbitTemplate, messageConverter, meterRegistry,
+                maxInFlight, maxRetries, 10, confirmTimeoutMs);
+    }
+
+    /**
+     * Simula o broker: recebe a tentativa (a partir de 1) e a CorrelationData da publicação.
+     */
+    private void onSend(BiConsumer<Integer, CorrelationData> broker) {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            broker.accept(attempts.incrementAndGet(), invocation.getArgument(3));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("notification.sse.publish").tag("result", result).counter().count();
+    }
+
+    private double outstanding() {
+        return meterRegistry.get("notification.sse.outstanding").gauge().value();
+    }
+
+    private static WeatherNotificationDTO notification() {
+        return WeatherNotificationDTO.builder()
+                .userId(UUID.randomUUID())
+                .notificationId(UUID.randomUUID())
+                .cityName("São Paulo")
+                .uf("SP")
+                .build();
+    }
+}
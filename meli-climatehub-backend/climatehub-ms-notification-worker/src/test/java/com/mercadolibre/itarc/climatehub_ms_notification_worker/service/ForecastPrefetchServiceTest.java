@@ -0,0 +1,156 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ForecastPrefetchService Tests")
+class ForecastPrefetchServiceTest {
+
+    private static final ZoneId SAO_PAULO_ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final int CITY_ID = 244;
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private CptecService cptecService;
+
+    @Mock
+    private WorkerMembershipService workerMembershipService;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ForecastPrefetchService prefetchService;
+
+    @BeforeEach
+    void setUp() {
+        prefetchService = new ForecastPrefetchService(scheduleRepository, cptecService, cacheManager,
+                workerMembershipService, meterRegistry);
+        ReflectionTestUtils.setField(prefetchService, "refreshAfterMinutes", 30L);
+        ReflectionTestUtils.setField(prefetchService, "lookaheadMinutes", 15L);
+        ReflectionTestUtils.setField(prefetchService, "concurrency", 1);
+    }
+
+    @Test
+    @DisplayName("Não deve atualizar a previsão de hoje buscada há pouco")
+    void naoDeveAtualizarPrevisaoRecente() {
+        refreshedAt(System.currentTimeMillis());
+        cache(today());
+
+        assertFalse(prefetchService.needsRefresh(CITY_ID));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar a cidade que ainda não foi buscada por esta instância")
+    void deveAtualizarCidadeNuncaBuscada() {
+        cache(today());
+
+        assertTrue(prefetchService.needsRefresh(CITY_ID));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar a previsão buscada há mais que o limite de idade")
+    void deveAtualizarPrevisaoAntiga() {
+        refreshedAt(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(31));
+        cache(today());
+
+        assertTrue(prefetchService.needsRefresh(CITY_ID));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar quando a previsão não está mais em cache")
+    void deveAtualizarQuandoAusenteDoCache() {
+        refreshedAt(System.currentTimeMillis());
+
+        assertTrue(prefetchService.needsRefresh(CITY_ID));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar a previsão de ontem buscada antes da virada do dia")
+    void deveAtualizarPrevisaoDeOntemBuscadaAntesDaVirada() {
+        long beforeMidnight = startOfToday() - Duration.ofMinutes(1).toMillis();
+        // Sem o limite de idade, apenas a data de atualização decide
+        ReflectionTestUtils.setField(prefetchService, "refreshAfterMinutes", TimeUnit.DAYS.toMinutes(2));
+        refreshedAt(beforeMidnight);
+        cache(today().minusDays(1));
+
+        assertTrue(prefetchService.needsRefresh(CITY_ID));
+    }
+
+    @Test
+    @DisplayName("Não deve insistir na previsão de ontem já buscada hoje, antes de o CPTEC publicar a nova")
+    void naoDeveRebuscarPrevisaoDeOntemJaBuscadaHoje() {
+        refreshedAt(Math.max(startOfToday(), System.currentTimeMillis() - Duration.ofMinutes(1).toMillis()));
+        cache(today().minusDays(1));
+
+        assertFalse(prefetchService.needsRefresh(CITY_ID));
+    }
+
+    @Test
+    @DisplayName("Deve devolver a vaga e seguir para a próxima cidade quando a busca falha de forma síncrona")
+    void deveDevolverVagaQuandoBuscaFalhaSincronamente() {
+        when(scheduleRepository.findCityIdsDueBefore(any(), any())).thenReturn(List.of("244", "245"));
+        when(cptecService.refreshPrevisaoAsync(anyInt())).thenAnswer(invocation -> {
+            if (invocation.<Integer>getArgument(0) == CITY_ID) {
+                throw new IllegalStateException("limite de concorrência esgotado");
+            }
+            return CompletableFuture.completedFuture(previsao(today()));
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> prefetchService.prefetch());
+
+        verify(cptecService).refreshPrevisaoAsync(244);
+        verify(cptecService).refreshPrevisaoAsync(245);
+        assertEquals(1.0, refreshes("failure"));
+        assertEquals(1.0, refreshes("success"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void refreshedAt(long epochMillis) {
+        ((Map<Integer, Long>) ReflectionTestUtils.getField(prefetchService, "refreshedAt")).put(CITY_ID, epochMillis);
+    }
+
+    private void cache(LocalDate atualizacao) {
+        cacheManager.getCache("previsaoCache").put(CITY_ID, previsao(atualizacao));
+    }
+
+    private double refreshes(String result) {
+        return meterRegistry.get("forecast.prefetch.refreshes").tag("result", result).counter().count();
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(SAO_PAULO_ZONE);
+    }
+
+    private static long startOfToday() {
+        return today().atStartOfDay(SAO_PAULO_ZONE).toInstant().toEpochMilli();
+    }
+
+    private static PrevisaoCache previsao(LocalDate atualizacao) {
+        return new PrevisaoCache("São Paulo", "SP", atualizacao.toString(), List.of(), false);
+    }
+}
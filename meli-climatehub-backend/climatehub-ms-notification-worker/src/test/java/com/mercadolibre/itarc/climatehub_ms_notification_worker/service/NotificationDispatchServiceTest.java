@@ -0,0 +1,242 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.ScheduleType;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.entity.ScheduleEntity;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.producer.NotificationSSEProducer;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.repository.ScheduleRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.RedisOptOutService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl.RedisScheduleLockService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.TokenEncryptionUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationDispatchService Tests")
+class NotificationDispatchServiceTest {
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private CptecService cptecService;
+
+    @Mock
+    private RedisScheduleLockService redisScheduleLockService;
+
+    @Mock
+    private RedisOptOutService redisOptOutService;
+
+    @Mock
+    private NotificationSSEProducer notificationSSEProducer;
+
+    @Mock
+    private NotificationStatusReporter notificationStatusReporter;
+
+    @Mock
+    private TokenEncryptionUtil tokenEncryptionUtil;
+
+    @Mock
+    private TokenRefreshService tokenRefreshService;
+
+    @Mock
+    private CatchUpService catchUpService;
+
+    private NotificationDispatchService dispatchService;
+
+    @BeforeEach
+    void setUp() {
+        dispatchService = new NotificationDispatchService(scheduleRepository, cptecService, redisScheduleLockService,
+                redisOptOutService, notificationSSEProducer, notificationStatusReporter, tokenEncryptionUtil,
+                tokenRefreshService, catchUpService, new DispatchMetrics(new SimpleMeterRegistry()));
+
+        when(catchUpService.decide(any(ScheduleEntity.class), any(LocalDateTime.class)))
+                .thenReturn(CatchUpService.Decision.ON_TIME);
+        lenient().when(cptecService.getPrevisaoAsync(anyInt())).thenReturn(CompletableFuture.completedFuture(previsao()));
+    }
+
+    @Test
+    @DisplayName("Deve avançar o agendamento após a confirmação do broker")
+    void deveAvancarAgendamentoConfirmado() {
+        ScheduleEntity schedule = dailySchedule();
+        LocalDateTime scheduledFor = schedule.getNextExecution();
+        when(notificationSSEProducer.sendToProcess(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        dispatchService.dispatchClaimed(List.of(schedule));
+
+        assertTrue(schedule.getNextExecution().isAfter(scheduledFor));
+        assertEquals(List.of(schedule.getId()), savedIds());
+        assertEquals(List.of(NotificationStatus.EXECUTED), reportedStatuses());
+    }
+
+    @Test
+    @DisplayName("Não deve avançar o agendamento quando o broker recusa a mensagem")
+    void naoDeveAvancarAgendamentoRecusado() {
+        ScheduleEntity schedule = dailySchedule();
+        LocalDateTime scheduledFor = schedule.getNextExecution();
+        when(notificationSSEProducer.sendToProcess(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpException("Publicação na fila SSE não confirmada: nack")));
+
+        dispatchService.dispatchClaimed(List.of(schedule));
+
+        assertEquals(scheduledFor, schedule.getNextExecution());
+        assertEquals(ScheduleStatus.ACTIVE, schedule.getStatus());
+        verify(scheduleRepository, never()).batchUpdateState(any());
+        assertEquals(List.of(NotificationStatus.FAILED), reportedStatuses());
+    }
+
+    @Test
+    @DisplayName("Não deve encerrar o agendamento único quando a confirmação não chega a tempo")
+    void naoDeveEncerrarAgendamentoUnicoSemConfirmacao() {
+        ScheduleEntity schedule = dailySchedule();
+        schedule.setScheduleType(ScheduleType.ONCE);
+        schedule.setNextExecution(LocalDateTime.now(ZoneOffset.UTC));
+        when(notificationSSEProducer.sendToProcess(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        dispatchService.dispatchClaimed(List.of(schedule));
+
+        assertEquals(ScheduleStatus.ACTIVE, schedule.getStatus());
+        verify(scheduleRepository, never()).batchUpdateState(any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationStatusUpdateDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationStatusReporter).report(captor.capture());
+        assertTrue(captor.getValue().get(0).getMessage().contains("confirmação do broker não recebida a tempo"));
+    }
+
+    @Test
+    @DisplayName("Deve gravar apenas os agendamentos confirmados de um lote com falhas")
+    void deveGravarApenasConfirmadosDoLote() {
+        ScheduleEntity confirmed = dailySchedule();
+        ScheduleEntity rejected = dailySchedule();
+        LocalDateTime rejectedScheduledFor = rejected.getNextExecution();
+        when(notificationSSEProducer.sendToProcess(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpException("mensagem devolvida pelo broker: NO_ROUTE")));
+
+        dispatchService.dispatchClaimed(List.of(confirmed, rejected));
+
+        assertEquals(List.of(confirmed.getId()), savedIds());
+        assertEquals(rejectedScheduledFor, rejected.getNextExecution());
+        assertEquals(List.of(NotificationStatus.EXECUTED, NotificationStatus.FAILED), reportedStatuses());
+        verify(notificationStatusReporter, times(1)).report(anyList());
+        verify(notificationStatusReporter, never()).report(any(UUID.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve marcar como processado nesta hora o envio não confirmado, para reenviá-lo na próxima execução")
+    void deveReenviarNaProximaExecucaoQuandoNaoConfirmado() {
+        ScheduleEntity schedule = dailySchedule();
+        LocalDateTime scheduledFor = schedule.getNextExecution();
+        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+        when(redisScheduleLockService.claim(List.of(schedule.getId()), utcNow))
+                .thenReturn(new RedisScheduleLockService.ClaimResult(List.of(schedule.getId()), List.of(), List.of()));
+        when(notificationSSEProducer.sendToProcess(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpException("Publicação na fila SSE não confirmada: nack")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        dispatchService.dispatch(List.of(schedule), utcNow);
+
+        verify(redisScheduleLockService).release(eq(List.of(schedule.getId())), argThat(Collection::isEmpty), eq(utcNow));
+        assertEquals(scheduledFor, schedule.getNextExecution());
+
+        // Próxima execução: o agendamento continua vencido e sem marcador, então é reenviado
+        dispatchService.dispatch(List.of(schedule), utcNow);
+
+        verify(notificationSSEProducer, times(2)).sendToProcess(any(), any());
+        verify(redisScheduleLockService).release(eq(List.of(schedule.getId())),
+                argThat(processed -> processed.contains(schedule.getId())), eq(utcNow));
+        assertTrue(schedule.getNextExecution().isAfter(scheduledFor));
+    }
+
+    @Test
+    @DisplayName("Deve consultar o CPTEC apenas para os agendamentos que serão enviados")
+    void deveConsultarPrevisaoApenasDosAgendamentosEnviados() {
+        ScheduleEntity optedOut = dailySchedule();
+        optedOut.setCityId("100");
+        ScheduleEntity skipped = dailySchedule();
+        skipped.setCityId("200");
+        ScheduleEntity notDue = dailySchedule();
+        notDue.setCityId("300");
+        notDue.setNextExecution(LocalDateTime.now(ZoneOffset.UTC).plusMinutes(10));
+        ScheduleEntity due = dailySchedule();
+
+        when(redisOptOutService.isOptOut(any()))
+                .thenAnswer(invocation -> optedOut.getUserId().equals(invocation.getArgument(0)));
+        when(catchUpService.decide(any(ScheduleEntity.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0) == skipped
+                        ? CatchUpService.Decision.SKIP
+                        : CatchUpService.Decision.ON_TIME);
+        when(notificationSSEProducer.sendToProcess(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        dispatchService.dispatchClaimed(List.of(optedOut, skipped, notDue, due));
+
+        verify(cptecService).getPrevisaoAsync(244);
+        verify(cptecService, times(1)).getPrevisaoAsync(anyInt());
+        verify(notificationSSEProducer, times(1)).sendToProcess(any(), any());
+    }
+
+    private List<UUID> savedIds() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ScheduleEntity>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(scheduleRepository, times(1)).batchUpdateState(captor.capture());
+        return captor.getValue().stream().map(ScheduleEntity::getId).toList();
+    }
+
+    private List<NotificationStatus> reportedStatuses() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationStatusUpdateDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationStatusReporter).report(captor.capture());
+        return captor.getValue().stream().map(NotificationStatusUpdateDTO::getStatus).toList();
+    }
+
+    private static ScheduleEntity dailySchedule() {
+        return ScheduleEntity.builder()
+                .id(UUID.randomUUID())
+                .notificationId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .cityId("244")
+                .cityName("São Paulo")
+                .uf("SP")
+                .scheduleType(ScheduleType.DAILY)
+                .scheduleTime(LocalTime.of(8, 0))
+                .nextExecution(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1))
+                .status(ScheduleStatus.ACTIVE)
+                .build();
+    }
+
+    private static PrevisaoCache previsao() {
+        PrevisaoCache.PrevisaoDia hoje = new PrevisaoCache.PrevisaoDia(
+                LocalDate.now().toString(), "pn", 28, 18, 9.0);
+        return new PrevisaoCache("São Paulo", "SP", LocalDate.now().toString(), List.of(hoje), false);
+    }
+}
@@ -0,0 +1,150 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.constants.NotificationStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.feign.client.NotificationFeignClient;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.dto.NotificationStatusUpdateDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationStatusReporter Tests")
+class NotificationStatusReporterTest {
+
+    @Mock
+    private NotificationFeignClient notificationClient;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private NotificationStatusReporter reporter;
+
+    @AfterEach
+    void tearDown() {
+        if (reporter != null) {
+            reporter.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve chamar o Feign quando o broker confirma o evento")
+    void naoDeveChamarFeignQuandoConfirmado() throws Exception {
+        reporter = queueReporter(200);
+        onPublish(correlation -> correlation.getFuture().complete(new CorrelationData.Confirm(true, null)));
+
+        UUID notificationId = UUID.randomUUID();
+        reporter.report(notificationId, NotificationStatus.EXECUTED, "ok");
+
+        verify(rabbitTemplate).convertAndSend(eq(""), eq(RabbitMQConfig.NOTIFICATION_STATUS_QUEUE),
+                any(NotificationStatusUpdateDTO.class), any(CorrelationData.class));
+        Thread.sleep(300);
+        verifyNoInteractions(notificationClient);
+    }
+
+    @Test
+    @DisplayName("Deve enviar pelo Feign o evento recusado (nack) pelo broker")
+    void deveEnviarPeloFeignQuandoRecusado() {
+        reporter = queueReporter(5000);
+        onPublish(correlation -> correlation.getFuture().complete(new CorrelationData.Confirm(false, "nack")));
+
+        UUID notificationId = UUID.randomUUID();
+        reporter.report(notificationId, NotificationStatus.EXECUTED, "ok");
+
+        verify(notificationClient, timeout(2000)).updateStatus(eq(notificationId), any(NotificationStatusDTO.class));
+    }
+
+    @Test
+    @DisplayName("Deve enviar pelo Feign o evento devolvido sem fila de destino")
+    void deveEnviarPeloFeignQuandoDevolvido() {
+        reporter = queueReporter(5000);
+        onPublish(correlation -> {
+            correlation.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+                    312, "NO_ROUTE", "", RabbitMQConfig.NOTIFICATION_STATUS_QUEUE));
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+        });
+
+        UUID notificationId = UUID.randomUUID();
+        reporter.report(notificationId, NotificationStatus.FAILED, "erro");
+
+        verify(notificationClient, timeout(2000)).updateStatus(eq(notificationId), any(NotificationStatusDTO.class));
+    }
+
+    @Test
+    @DisplayName("Deve enviar pelo Feign, em lote, os eventos não confirmados até o prazo")
+    void deveEnviarPeloFeignQuandoSemConfirmacao() {
+        reporter = queueReporter(100);
+        // Nenhuma confirmação chega
+
+        reporter.report(List.of(status(NotificationStatus.EXECUTED), status(NotificationStatus.FAILED)));
+
+        verify(notificationClient, timeout(2000)).updateStatuses(argThat(statuses -> statuses.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Deve enviar pelo Feign os eventos restantes quando a publicação falha")
+    void deveEnviarPeloFeignQuandoPublicacaoFalha() {
+        reporter = queueReporter(5000);
+        doThrow(new AmqpConnectException(new RuntimeException("broker fora")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        NotificationStatusUpdateDTO first = status(NotificationStatus.EXECUTED);
+        NotificationStatusUpdateDTO second = status(NotificationStatus.FAILED);
+        reporter.report(List.of(first, second));
+
+        verify(notificationClient).updateStatuses(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("Deve usar apenas o Feign no transporte http")
+    void deveUsarFeignNoTransporteHttp() {
+        reporter = new NotificationStatusReporter(notificationClient, rabbitTemplate, "http", 5000);
+
+        UUID notificationId = UUID.randomUUID();
+        reporter.report(notificationId, NotificationStatus.EXECUTED, "ok");
+
+        verify(notificationClient).updateStatus(eq(notificationId), any(NotificationStatusDTO.class));
+        verify(notificationClient, never()).updateStatuses(anyList());
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    private NotificationStatusReporter queueReporter(long confirmTimeoutMs) {
+        return new NotificationStatusReporter(notificationClient, rabbitTemplate, "queue", confirmTimeoutMs);
+    }
+
+    private void onPublish(Consumer<CorrelationData> broker) {
+        doAnswer(invocation -> {
+            broker.accept(invocation.getArgument(3));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    private static NotificationStatusUpdateDTO status(NotificationStatus status) {
+        return NotificationStatusUpdateDTO.builder()
+                .notificationId(UUID.randomUUID())
+                .status(status)
+                .message("Evento do worker")
+                .build();
+    }
+}
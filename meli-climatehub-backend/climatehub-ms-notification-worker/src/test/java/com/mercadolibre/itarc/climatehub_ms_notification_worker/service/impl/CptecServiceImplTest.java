@@ -0,0 +1,189 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.service.impl;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.service.CityCatalogService;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.util.CptecXmlParser;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CptecServiceImpl Tests")
+class CptecServiceImplTest {
+
+    private static final String PREVISAO_PATH = "/cidade/\\d+/previsao\\.xml";
+
+    @Mock
+    private CityCatalogService cityCatalogService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private WireMockServer cptec;
+    private CptecServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        cptec = new WireMockServer(options().dynamicPort());
+        cptec.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+        cptec.stop();
+    }
+
+    @Test
+    @DisplayName("Deve abortar a leitura de um corpo que não termina dentro do prazo e devolver a vaga do limite")
+    void deveAbortarCorpoLentoDentroDoPrazo() {
+        service = service(300, 5000);
+        // Cabeçalhos imediatos, corpo entregue aos poucos ao longo de 5 segundos
+        cptec.stubFor(get(urlPathMatching(PREVISAO_PATH))
+                .willReturn(aResponse().withStatus(200).withBody(fixture("cptec/previsao.xml"))
+                        .withChunkedDribbleDelay(50, 5000)));
+
+        long start = System.nanoTime();
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> service.getPrevisaoAsync(244).get(3, TimeUnit.SECONDS));
+
+        assertInstanceOf(ResourceAccessException.class, error.getCause());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    @DisplayName("Deve interromper a busca ao esgotar o prazo total e devolver a vaga do limite")
+    void deveInterromperBuscaAoEsgotarPrazoTotal() throws Exception {
+        service = service(5000, 300);
+        cptec.stubFor(get(urlPathMatching(PREVISAO_PATH))
+                .willReturn(aResponse().withStatus(200).withBody(fixture("cptec/previsao.xml"))
+                        .withChunkedDribbleDelay(50, 5000)));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> service.getPrevisaoAsync(244).get(3, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        // A virtual thread interrompida sai da leitura e devolve a vaga logo em seguida
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    @DisplayName("Deve servir a última previsão válida, marcada como desatualizada, quando o CPTEC falha")
+    void deveServirUltimaPrevisaoValidaQuandoCptecFalha() throws Exception {
+        service = staleService();
+        PrevisaoCache fresh = primeLastGood();
+        cptec.stubFor(get(urlPathMatching(PREVISAO_PATH)).willReturn(aResponse().withStatus(503)));
+
+        PrevisaoCache previsao = service.getPrevisaoAsync(244).get(3, TimeUnit.SECONDS);
+
+        assertTrue(previsao.isStale());
+        assertEquals(fresh.getAtualizacao(), previsao.getAtualizacao());
+        assertEquals(fresh.getPrevisoes(), previsao.getPrevisoes());
+        assertNull(cacheManager.getCache("previsaoCache").get(244));
+        assertFalse(cacheManager.getCache("previsaoStaleCache").get(244, PrevisaoCache.class).isStale());
+    }
+
+    @Test
+    @DisplayName("Deve servir a última previsão válida sem chamar o CPTEC com o circuito aberto")
+    void deveServirUltimaPrevisaoValidaComCircuitoAberto() throws Exception {
+        service = staleService();
+        primeLastGood();
+        circuitBreakerRegistry.circuitBreaker("cptec").transitionToOpenState();
+
+        PrevisaoCache previsao = service.getPrevisaoAsync(244).get(3, TimeUnit.SECONDS);
+
+        assertTrue(previsao.isStale());
+        assertNull(cacheManager.getCache("previsaoCache").get(244));
+        cptec.verify(1, getRequestedFor(urlPathMatching(PREVISAO_PATH)));
+    }
+
+    @Test
+    @DisplayName("Deve propagar erros 4xx mesmo havendo uma previsão válida anterior")
+    void devePropagarErro4xxMesmoComUltimaPrevisaoValida() {
+        service = staleService();
+        primeLastGood();
+        cptec.stubFor(get(urlPathMatching(PREVISAO_PATH)).willReturn(aResponse().withStatus(404)));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> service.getPrevisaoAsync(244).get(3, TimeUnit.SECONDS));
+
+        assertInstanceOf(HttpClientErrorException.class, error.getCause());
+        assertNull(cacheManager.getCache("previsaoCache").get(244));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("cptec").getState());
+    }
+
+    private CptecServiceImpl service(long readTimeoutMs, long totalTimeoutMs) {
+        return new CptecServiceImpl(new RestTemplateBuilder(), new CptecXmlParser(), cacheManager,
+                cityCatalogService, circuitBreakerRegistry, meterRegistry, cptec.baseUrl(),
+                8, 1000, readTimeoutMs, totalTimeoutMs, 4, 1, 1500, 0.9, 1000);
+    }
+
+    private CptecServiceImpl staleService() {
+        CptecServiceImpl staleService = service(2000, 5000);
+        ReflectionTestUtils.setField(staleService, "serveStale", true);
+        return staleService;
+    }
+
+    /**
+     * Busca uma previsão com sucesso (guardada como última válida) e esvazia o cache principal,
+     * como se a entrada tivesse expirado.
+     */
+    private PrevisaoCache primeLastGood() {
+        cptec.stubFor(get(urlPathMatching(PREVISAO_PATH))
+                .willReturn(aResponse().withStatus(200).withBody(fixture("cptec/previsao.xml"))));
+        PrevisaoCache fresh = service.getPrevisaoAsync(244).join();
+        assertFalse(fresh.isStale());
+        cacheManager.getCache("previsaoCache").clear();
+        return fresh;
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("cptec.limiter.inflight").gauge().value();
+    }
+
+    private static byte[] fixture(String path) {
+        try (InputStream in = CptecServiceImplTest.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture não encontrada: " + path);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    @DisplayName("Deve aumentar o limite enquanto as respostas são rápidas e o limite está em uso")
+    void deveAumentarLimiteComRespostasRapidas() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, 1000, 0.5);
+
+        for (int round = 0; round < 50; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.tryAcquire(System.nanoTime()));
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.onSuccess(FAST);
+            }
+        }
+
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Não deve aumentar o limite quando está ocioso")
+    void naoDeveAumentarLimiteOcioso() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, 1000, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(System.nanoTime()));
+            limiter.onSuccess(FAST);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite com respostas lentas e falhas, respeitando o mínimo")
+    void deveReduzirLimiteComLentidaoEFalhas() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 8, 1000, 0.5);
+
+        assertTrue(limiter.tryAcquire(System.nanoTime()));
+        limiter.onSuccess(SLOW);
+        assertEquals(4, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire(System.nanoTime()));
+        limiter.onDropped();
+        assertEquals(2, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire(System.nanoTime()));
+        limiter.onDropped();
+        assertEquals(2, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire(System.nanoTime()));
+        limiter.onIgnored();
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Deve recusar após o prazo quando o limite está ocupado")
+    void deveRecusarAposPrazo() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1000, 0.5);
+        assertTrue(limiter.tryAcquire(System.nanoTime()));
+
+        long start = System.nanoTime();
+        assertFalse(limiter.tryAcquire(start + TimeUnit.MILLISECONDS.toNanos(50)));
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Deve liberar quem está na fila quando uma vaga é devolvida")
+    void deveLiberarFilaAoDevolverVaga() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1000, 0.5);
+        assertTrue(limiter.tryAcquire(System.nanoTime()));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.tryAcquire(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueueDepth() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, limiter.getQueueDepth());
+
+        limiter.onIgnored();
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar configuração inválida")
+    void deveRejeitarConfiguracaoInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(4, 0, 8, 1000, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(4, 8, 2, 1000, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(4, 1, 8, 1000, 1.0));
+    }
+}
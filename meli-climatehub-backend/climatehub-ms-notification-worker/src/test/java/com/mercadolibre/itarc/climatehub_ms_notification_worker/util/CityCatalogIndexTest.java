@@ -0,0 +1,101 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.xml.CidadeXml;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CityCatalogIndex Tests")
+class CityCatalogIndexTest {
+
+    private final CityCatalogIndex index = CityCatalogIndex.of(List.of(
+            new CidadeXml("São Paulo", "SP", 244),
+            new CidadeXml("São José dos Campos", "SP", 5060),
+            new CidadeXml("São José", "SC", 5054),
+            new CidadeXml("Santa Bárbara d'Oeste", "SP", 4674),
+            new CidadeXml("Embu-Guaçu", "SP", 1832)
+    ));
+
+    @Test
+    @DisplayName("Deve encontrar cidades ignorando acentos, caixa e espaços extras")
+    void deveEncontrarIgnorandoAcentos() {
+        CityCache cidade = index.find("  sao   PAULO ", "sp");
+
+        assertNotNull(cidade);
+        assertEquals(244, cidade.getCityId());
+        assertEquals("SP", cidade.getUf());
+    }
+
+    @Test
+    @DisplayName("Deve resolver nomes compostos pelo nome completo e pela UF")
+    void deveResolverNomesCompostos() {
+        assertEquals(5060, index.find("São José dos Campos", "SP").getCityId());
+        assertEquals(5054, index.find("São José", "SC").getCityId());
+        assertEquals(4674, index.find("Santa Barbara d'Oeste", "SP").getCityId());
+        assertEquals(1832, index.find("Embu-Guacu", "SP").getCityId());
+        assertNull(index.find("São José", "SP"));
+    }
+
+    @Test
+    @DisplayName("Deve gravar e reler o snapshot em disco")
+    void deveGravarEReler(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("catalogo/cidades.tsv");
+
+        index.writeTo(snapshot);
+        CityCatalogIndex reloaded = CityCatalogIndex.readFrom(snapshot);
+
+        assertEquals(index.size(), reloaded.size());
+        assertEquals(5060, reloaded.find("sao jose dos campos", "SP").getCityId());
+    }
+
+    @Test
+    @DisplayName("Não deve gravar no snapshot cidades sem id ou UF")
+    void naoDeveGravarCidadesIncompletas(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("cidades.tsv");
+        CityCatalogIndex comIncompletas = CityCatalogIndex.of(List.of(
+                new CidadeXml("São Paulo", "SP", 244),
+                new CidadeXml("Sem Id", "SP", null),
+                new CidadeXml("Sem UF", null, 999)
+        ));
+
+        comIncompletas.writeTo(snapshot);
+
+        assertEquals(List.of("244\tSP\tSão Paulo"), Files.readAllLines(snapshot, StandardCharsets.UTF_8));
+        assertEquals(1, CityCatalogIndex.readFrom(snapshot).size());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar apenas as linhas malformadas ao ler o snapshot")
+    void deveIgnorarLinhasMalformadas(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("cidades.tsv");
+        Files.write(snapshot, List.of(
+                "244\tSP\tSão Paulo",
+                "null\tSP\tSem Id",
+                "999\tnull\tSem UF",
+                "5060\tSP",
+                "",
+                "5054\tSC\tSão José"
+        ), StandardCharsets.UTF_8);
+
+        CityCatalogIndex reloaded = CityCatalogIndex.readFrom(snapshot);
+
+        assertEquals(2, reloaded.size());
+        assertEquals(244, reloaded.find("São Paulo", "SP").getCityId());
+        assertEquals(5054, reloaded.find("São José", "SC").getCityId());
+    }
+
+    @Test
+    @DisplayName("Índice vazio não deve encontrar nada")
+    void indiceVazio() {
+        assertTrue(CityCatalogIndex.EMPTY.isEmpty());
+        assertNull(CityCatalogIndex.EMPTY.find("São Paulo", "SP"));
+    }
+}
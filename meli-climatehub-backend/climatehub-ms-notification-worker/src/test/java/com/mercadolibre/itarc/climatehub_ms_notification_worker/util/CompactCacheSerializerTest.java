@@ -0,0 +1,112 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.OndasCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompactCacheSerializer Tests")
+class CompactCacheSerializerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactCacheSerializerTest.class);
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(getClass().getClassLoader());
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer(getClass().getClassLoader());
+
+    @Test
+    @DisplayName("Deve serializar e ler de volta os tipos de cache do CPTEC")
+    void deveFazerIdaEVolta() {
+        PrevisaoCache previsao = previsao();
+        CityCache cidade = new CityCache(244, "SP");
+        OndasCache ondas = new OndasCache("Rio de Janeiro", "RJ", "2025-06-04",
+                new OndasCache.PrevisaoPeriodo("2025-06-04 00h Z", "Fraco", 1.0, "S", 3.5, "SE"), null, null);
+
+        assertEquals(previsao, serializer.deserialize(serializer.serialize(previsao)));
+        assertEquals(cidade, serializer.deserialize(serializer.serialize(cidade)));
+        assertEquals(ondas, serializer.deserialize(serializer.serialize(ondas)));
+    }
+
+    @Test
+    @DisplayName("Deve gravar o cabeçalho com a versão e o tipo")
+    void deveGravarCabecalho() {
+        byte[] bytes = serializer.serialize(previsao());
+
+        assertEquals(CompactCacheSerializer.MAGIC_0, bytes[0]);
+        assertEquals(CompactCacheSerializer.MAGIC_1, bytes[1]);
+        assertEquals(CompactCacheSerializer.VERSION, bytes[2]);
+        assertEquals(1, bytes[3]);
+    }
+
+    @Test
+    @DisplayName("Deve ler entradas antigas gravadas em serialização Java")
+    void deveLerEntradasAntigas() {
+        byte[] legacy = jdk.serialize(previsao());
+
+        assertEquals(previsao(), serializer.deserialize(legacy));
+    }
+
+    @Test
+    @DisplayName("Deve manter outros tipos em serialização Java")
+    void deveManterOutrosTiposEmJava() {
+        byte[] bytes = serializer.serialize(NullValue.INSTANCE);
+
+        assertSame(NullValue.INSTANCE, serializer.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("Versão desconhecida deve ser tratada como ausente")
+    void versaoDesconhecidaComoAusente() {
+        byte[] bytes = serializer.serialize(previsao());
+        bytes[2] = 99;
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("Benchmark: tamanho e latência de CBOR x serialização Java")
+    void benchmark() {
+        PrevisaoCache previsao = previsao();
+
+        int compactSize = serializer.serialize(previsao).length;
+        int jdkSize = jdk.serialize(previsao).length;
+        long compactNanos = measure(serializer, previsao);
+        long jdkNanos = measure(jdk, previsao);
+
+        logger.info("PrevisaoCache: CBOR = {} bytes, {} ns/op (ida e volta) | Java = {} bytes, {} ns/op",
+                compactSize, compactNanos, jdkSize, jdkNanos);
+
+        assertTrue(compactSize < jdkSize, "CBOR deveria ser menor que a serialização Java");
+    }
+
+    private long measure(RedisSerializer<Object> redisSerializer, Object value) {
+        for (int i = 0; i < WARMUP; i++) {
+            redisSerializer.deserialize(redisSerializer.serialize(value));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            redisSerializer.deserialize(redisSerializer.serialize(value));
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static PrevisaoCache previsao() {
+        return new PrevisaoCache("São Paulo", "SP", "2025-06-04", List.of(
+                new PrevisaoCache.PrevisaoDia("2025-06-04", "pn", 25, 15, 8.0),
+                new PrevisaoCache.PrevisaoDia("2025-06-05", "c", 22, 14, 6.0),
+                new PrevisaoCache.PrevisaoDia("2025-06-06", "ps", 24, 13, 9.0),
+                new PrevisaoCache.PrevisaoDia("2025-06-07", "n", 21, 12, 5.0)
+        ), false);
+    }
+}
@@ -0,0 +1,52 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConsistentHashRing Tests")
+class ConsistentHashRingTest {
+
+    private static final int SLOTS = 256;
+
+    @Test
+    @DisplayName("Deve atribuir cada slot a exatamente um membro")
+    void deveAtribuirCadaSlotAUmMembro() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+
+        Set<Integer> all = new HashSet<>();
+        for (String member : ring.getMembers()) {
+            Set<Integer> slots = ring.slotsOf(member, SLOTS);
+            slots.forEach(slot -> assertTrue(all.add(slot), "Slot atribuído a mais de um membro: " + slot));
+        }
+        assertEquals(SLOTS, all.size());
+    }
+
+    @Test
+    @DisplayName("Deve mover apenas os slots do membro que saiu")
+    void deveMoverApenasSlotsDoMembroQueSaiu() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b"), 64);
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            String owner = before.ownerOf(slot);
+            if (!"c".equals(owner)) {
+                assertEquals(owner, after.ownerOf(slot));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve retornar null quando o anel estiver vazio")
+    void deveRetornarNullComAnelVazio() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 64);
+
+        assertNull(ring.ownerOf(0));
+        assertTrue(ring.slotsOf("a", SLOTS).isEmpty());
+    }
+}
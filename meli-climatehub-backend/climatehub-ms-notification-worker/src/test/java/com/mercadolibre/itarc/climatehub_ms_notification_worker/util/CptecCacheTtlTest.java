@@ -0,0 +1,54 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.CityCache;
+import com.mercadolibre.itarc.climatehub_ms_notification_worker.model.redis.PrevisaoCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CptecCacheTtl Tests")
+class CptecCacheTtlTest {
+
+    private static final ZoneId SAO_PAULO = ZoneId.of("America/Sao_Paulo");
+
+    // 04/06/2025 18:00 em São Paulo
+    private final Clock clock = Clock.fixed(ZonedDateTime.of(2025, 6, 4, 18, 0, 0, 0, SAO_PAULO).toInstant(), SAO_PAULO);
+    private final CptecCacheTtl ttl = new CptecCacheTtl(Duration.ofHours(12), Duration.ofMinutes(15), clock);
+
+    @Test
+    @DisplayName("Previsão do dia deve expirar na meia-noite local")
+    void deveExpirarNaMeiaNoite() {
+        assertEquals(Duration.ofHours(6), ttl.getTimeToLive(244, previsao("2025-06-04")));
+    }
+
+    @Test
+    @DisplayName("Previsão de um dia anterior deve ficar apenas o TTL mínimo")
+    void previsaoVencidaUsaTtlMinimo() {
+        assertEquals(Duration.ofMinutes(15), ttl.getTimeToLive(244, previsao("2025-06-03")));
+    }
+
+    @Test
+    @DisplayName("TTL deve ser limitado ao máximo")
+    void deveLimitarAoMaximo() {
+        assertEquals(Duration.ofHours(12), ttl.getTimeToLive(244, previsao("2025-06-05")));
+    }
+
+    @Test
+    @DisplayName("Sem data de atualização deve expirar na próxima meia-noite")
+    void semDataExpiraNaMeiaNoite() {
+        assertEquals(Duration.ofHours(6), ttl.getTimeToLive(244, previsao(null)));
+        assertEquals(Duration.ofHours(6), ttl.getTimeToLive("x", new CityCache(244, "SP")));
+    }
+
+    private static PrevisaoCache previsao(String atualizacao) {
+        PrevisaoCache previsao = new PrevisaoCache();
+        previsao.setAtualizacao(atualizacao);
+        return previsao;
+    }
+}
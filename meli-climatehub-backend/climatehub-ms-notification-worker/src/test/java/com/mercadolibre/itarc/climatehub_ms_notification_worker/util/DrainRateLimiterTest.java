@@ -0,0 +1,45 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DrainRateLimiter Tests")
+class DrainRateLimiterTest {
+
+    @Test
+    @DisplayName("Deve espaçar as permissões conforme a taxa")
+    void deveEspacarPermissoes() {
+        DrainRateLimiter limiter = new DrainRateLimiter(50);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire(deadline));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 6 permissões a 50/s: a primeira é imediata e as outras 5 esperam 20ms cada
+        assertTrue(elapsedMillis >= 90, "Permissões liberadas rápido demais: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    @DisplayName("Deve recusar permissões além do prazo sem consumir a vaga")
+    void deveRecusarPermissoesAlemDoPrazo() {
+        DrainRateLimiter limiter = new DrainRateLimiter(1);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+
+        assertTrue(limiter.tryAcquire(deadline));
+        assertFalse(limiter.tryAcquire(deadline));
+        assertTrue(limiter.tryAcquire(System.nanoTime() + TimeUnit.SECONDS.toNanos(5)));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar taxa não positiva")
+    void deveRejeitarTaxaInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new DrainRateLimiter(0));
+    }
+}
@@ -0,0 +1,60 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HashedTimingWheel Tests")
+class HashedTimingWheelTest {
+
+    private static final long START = 1_700_000_000L;
+
+    @Test
+    @DisplayName("Deve disparar o item apenas no segundo de vencimento")
+    void deveDispararNoSegundoDeVencimento() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(60, START);
+        wheel.add("a", START + 5);
+
+        assertTrue(wheel.advance(START + 4).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 5));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Deve manter itens de voltas futuras no bucket")
+    void deveManterItensDeVoltasFuturas() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, START);
+        wheel.add("proxima-volta", START + 13);
+
+        assertTrue(wheel.advance(START + 10).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("proxima-volta"), wheel.advance(START + 13));
+    }
+
+    @Test
+    @DisplayName("Deve disparar itens vencidos no próximo avanço")
+    void deveDispararItensVencidos() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(60, START);
+        wheel.add("atrasado", START - 30);
+
+        assertEquals(List.of("atrasado"), wheel.advance(START + 1));
+    }
+
+    @Test
+    @DisplayName("Deve recuperar todos os itens após um salto maior que a roda")
+    void deveRecuperarItensAposSalto() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, START);
+        wheel.add("a", START + 2);
+        wheel.add("b", START + 7);
+        wheel.add("c", START + 40);
+
+        List<String> due = wheel.advance(START + 25);
+
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of("a", "b")));
+        assertEquals(1, wheel.size());
+    }
+}
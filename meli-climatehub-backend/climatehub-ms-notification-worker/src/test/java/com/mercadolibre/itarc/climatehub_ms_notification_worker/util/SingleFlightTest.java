@@ -0,0 +1,110 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Deve executar uma única vez para chamadas concorrentes da mesma chave")
+    void deveAgruparChamadasConcorrentes() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> flights.get("244", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "São Paulo";
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 9; i++) {
+                results.add(executor.submit(() -> flights.get("244", () -> {
+                    executions.incrementAndGet();
+                    return "outra busca";
+                })));
+            }
+            // Aguarda as demais chamadas encontrarem a busca em andamento
+            while (flights.coalescedCount() < 9) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+        }
+
+        for (Future<String> result : results) {
+            assertEquals("São Paulo", result.get());
+        }
+        assertEquals(1, executions.get());
+        assertEquals(9, flights.coalescedCount());
+        assertEquals(0, flights.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a mesma exceção para as chamadas agrupadas e liberar a chave")
+    void devePropagarExcecao() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CompletableFuture<String> leader = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flights.execute("244", () -> leader);
+        CompletableFuture<String> second = flights.execute("244", () -> CompletableFuture.completedFuture("outra busca"));
+        leader.completeExceptionally(new IllegalStateException("CPTEC fora do ar"));
+
+        assertEquals("CPTEC fora do ar", assertThrows(Exception.class, first::join).getCause().getMessage());
+        assertEquals("CPTEC fora do ar", assertThrows(Exception.class, second::join).getCause().getMessage());
+        assertEquals(1, flights.coalescedCount());
+
+        // Após a conclusão uma nova chamada executa novamente
+        assertEquals("Santos", flights.execute("244", () -> CompletableFuture.completedFuture("Santos")).join());
+    }
+
+    @Test
+    @DisplayName("Não deve agrupar chaves diferentes nem chamadas sequenciais")
+    void naoDeveAgruparChavesDiferentes() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+
+        assertEquals("a", flights.get("1", () -> "a"));
+        assertEquals("b", flights.get("2", () -> "b"));
+        assertEquals("c", flights.get("1", () -> "c"));
+        assertEquals(0, flights.coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Cancelar uma chamada agrupada não deve afetar as demais")
+    void cancelamentoNaoDeveAfetarDemais() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CompletableFuture<String> leader = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flights.execute("244", () -> leader);
+        CompletableFuture<String> second = flights.execute("244", () -> leader);
+        second.cancel(true);
+        leader.complete("São Paulo");
+
+        assertEquals("São Paulo", first.join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
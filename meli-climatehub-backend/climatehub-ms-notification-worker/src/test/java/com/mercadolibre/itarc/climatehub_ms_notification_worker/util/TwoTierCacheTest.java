@@ -0,0 +1,97 @@
+package com.mercadolibre.itarc.climatehub_ms_notification_worker.util;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TwoTierCache Tests")
+class TwoTierCacheTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> published = new ArrayList<>();
+    private ConcurrentMapCache remote;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("previsaoCache");
+        cache = new TwoTierCache("previsaoCache", remote,
+                Caffeine.newBuilder().maximumSize(100).<String, Cache.ValueWrapper>build(),
+                (cacheName, key) -> published.add(cacheName + ":" + key), registry);
+    }
+
+    @Test
+    @DisplayName("Deve promover para o L1 o valor encontrado no L2")
+    void devePromoverValorDoL2() {
+        remote.put(244, "São Paulo");
+
+        assertEquals("São Paulo", cache.get(244, String.class));
+        remote.evict(244);
+
+        // Segunda leitura servida pelo L1, sem depender do L2
+        assertEquals("São Paulo", cache.get(244, String.class));
+        assertEquals(1, count("l1", "hit"));
+        assertEquals(1, count("l1", "miss"));
+        assertEquals(1, count("l2", "hit"));
+        assertEquals(0, count("l2", "miss"));
+    }
+
+    @Test
+    @DisplayName("Deve gravar nos dois níveis e anunciar a alteração")
+    void deveGravarNosDoisNiveis() {
+        cache.put(244, "São Paulo");
+
+        assertEquals("São Paulo", remote.get(244, String.class));
+        assertEquals(1, cache.localSize());
+        assertEquals(List.of("previsaoCache:244"), published);
+    }
+
+    @Test
+    @DisplayName("Deve remover dos dois níveis e anunciar a limpeza")
+    void deveRemoverDosDoisNiveis() {
+        cache.put(244, "São Paulo");
+        cache.put(241, "Rio de Janeiro");
+
+        cache.evict(244);
+        assertNull(cache.get(244));
+        assertNull(remote.get(244));
+
+        cache.clear();
+        assertNull(cache.get(241));
+        assertEquals("previsaoCache:null", published.get(published.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Invalidação recebida de outra instância descarta só a cópia local")
+    void invalidacaoRemotaDescartaApenasL1() {
+        cache.put(244, "São Paulo");
+        remote.put(244, "São Paulo (atualizado)");
+
+        cache.invalidateLocal("244");
+
+        assertEquals(0, cache.localSize());
+        assertEquals("São Paulo (atualizado)", cache.get(244, String.class));
+    }
+
+    @Test
+    @DisplayName("Deve carregar pelo valueLoader na falta dos dois níveis")
+    void deveCarregarPeloValueLoader() {
+        assertEquals("Santos", cache.get(227, () -> "Santos"));
+        assertEquals("Santos", remote.get(227, String.class));
+        assertEquals("Santos", cache.get(227, () -> "outro valor"));
+    }
+
+    private double count(String tier, String result) {
+        return registry.get("cache.tier.gets").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
@@ -1,22 +1,64 @@
 package com.mercadolibre.itarc.climatehub_ms_notification.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
 public class RabbitMQConfig {
     public static final String SSE_NOTIFICATION_QUEUE = "sse-notification-queue";
+    public static final String NOTIFICATION_STATUS_QUEUE = "notification-status-queue";
+
+    @Value("${notification.listener.concurrency:2}")
+    private int concurrency;
+
+    @Value("${notification.listener.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${notification.listener.prefetch:50}")
+    private int prefetch;
+
+    @Value("${notification.listener.scaling.consecutive-active-trigger:10}")
+    private int consecutiveActiveTrigger;
+
+    @Value("${notification.listener.scaling.consecutive-idle-trigger:10}")
+    private int consecutiveIdleTrigger;
+
+    @Value("${notification.listener.scaling.start-consumer-min-interval-ms:10000}")
+    private long startConsumerMinIntervalMs;
+
+    @Value("${notification.listener.scaling.stop-consumer-min-interval-ms:60000}")
+    private long stopConsumerMinIntervalMs;
+
+    @Value("${notification.listener.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${notification.status-listener.concurrency:1}")
+    private int statusConcurrency;
+
+    @Value("${notification.status-listener.batch-size:200}")
+    private int statusBatchSize;
+
+    @Value("${notification.status-listener.receive-timeout-ms:500}")
+    private long statusReceiveTimeoutMs;
 
     @Bean
     public Queue sseNotificationQueue() {
         return new Queue(SSE_NOTIFICATION_QUEUE, true);
     }
 
+    @Bean
+    public Queue notificationStatusQueue() {
+        return new Queue(NOTIFICATION_STATUS_QUEUE, true);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -28,4 +70,40 @@ public class RabbitMQConfig {
         template.setMessageConverter(jsonMessageConverter());
         return template;
     }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+
+        // Começa com concurrency consumidores e sobe até max-concurrency enquanto a fila tem mensagens
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(prefetch);
+        factory.setConsecutiveActiveTrigger(consecutiveActiveTrigger);
+        factory.setConsecutiveIdleTrigger(consecutiveIdleTrigger);
+        factory.setStartConsumerMinInterval(startConsumerMinIntervalMs);
+        factory.setStopConsumerMinInterval(stopConsumerMinIntervalMs);
+        if (virtualThreads) {
+            // Cada consumidor roda numa virtual thread; o envio pelo SseEmitter bloqueia enquanto escreve na conexão
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("sse-listener-"));
+        }
+        return factory;
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory statusListenerContainerFactory(ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+
+        // Entrega até batch-size eventos de status por vez, ou o que chegou até receive-timeout-ms sem novos eventos
+        factory.setConcurrentConsumers(statusConcurrency);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(statusBatchSize);
+        factory.setReceiveTimeout(statusReceiveTimeoutMs);
+        factory.setPrefetchCount(statusBatchSize);
+        return factory;
+    }
 } 
\ No newline at end of file
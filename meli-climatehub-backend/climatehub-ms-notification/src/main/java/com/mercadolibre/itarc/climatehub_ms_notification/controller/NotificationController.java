@@ -3,6 +3,7 @@ package com.mercadolibre.itarc.climatehub_ms_notification.controller;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationRequest;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationResponse;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
 import com.mercadolibre.itarc.climatehub_ms_notification.service.NotificationService;
 import com.mercadolibre.itarc.climatehub_ms_notification.service.SseService;
 import com.mercadolibre.itarc.climatehub_ms_notification.service.TokenService;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -43,6 +45,13 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("/status")
+    public ResponseEntity<Void> updateStatuses(@RequestBody List<NotificationStatusUpdateDTO> updates) {
+        log.info("Atualizando status de {} notificações em lote", updates.size());
+        notificationService.updateStatuses(updates);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping(path = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter subscribe() {
         String userId = tokenService.getCurrentUserId();
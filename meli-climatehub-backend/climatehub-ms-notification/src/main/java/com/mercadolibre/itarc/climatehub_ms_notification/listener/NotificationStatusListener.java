@@ -0,0 +1,59 @@
+package com.mercadolibre.itarc.climatehub_ms_notification.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.itarc.climatehub_ms_notification.config.RabbitMQConfig;
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consome em lotes os eventos de status publicados pelo worker na notification-status-queue
+ * e aplica cada lote com uma única atualização em massa.
+ */
+@Component
+@Slf4j
+public class NotificationStatusListener {
+
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+
+    public NotificationStatusListener(NotificationService notificationService, ObjectMapper objectMapper) {
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Só eventos ilegíveis ou incompletos são descartados. Falhas ao gravar (banco indisponível etc.)
+     * são propagadas para que o container devolva o lote à fila em vez de confirmá-lo.
+     */
+    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_STATUS_QUEUE, containerFactory = "statusListenerContainerFactory")
+    public void receiveStatuses(List<Message> messages) {
+        List<NotificationStatusUpdateDTO> updates = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            NotificationStatusUpdateDTO update;
+            try {
+                update = objectMapper.readValue(message.getBody(), NotificationStatusUpdateDTO.class);
+            } catch (Exception e) {
+                log.error("❌ Evento de status inválido descartado: {}", e.getMessage());
+                continue;
+            }
+            if (update.getNotificationId() == null || update.getStatus() == null) {
+                log.error("❌ Evento de status incompleto descartado: {}", update);
+                continue;
+            }
+            updates.add(update);
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        notificationService.updateStatuses(updates);
+        log.debug("📥 Lote de {} eventos de status aplicado", updates.size());
+    }
+}
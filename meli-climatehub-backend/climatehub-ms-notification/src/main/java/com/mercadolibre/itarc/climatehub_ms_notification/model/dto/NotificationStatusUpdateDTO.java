@@ -0,0 +1,19 @@
+package com.mercadolibre.itarc.climatehub_ms_notification.model.dto;
+
+import com.mercadolibre.itarc.climatehub_ms_notification.constants.NotificationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationStatusUpdateDTO {
+    private UUID notificationId;
+    private NotificationStatus status;
+    private String message;
+}
@@ -3,7 +3,19 @@ package com.mercadolibre.itarc.climatehub_ms_notification.repository;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.entity.NotificationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
-public interface NotificationRepository extends JpaRepository<NotificationEntity, UUID> {
+public interface NotificationRepository extends JpaRepository<NotificationEntity, UUID>, NotificationRepositoryCustom {
+
+    /**
+     * Dono de cada notificação, usado para rotear o SSE sem carregar as entidades inteiras.
+     */
+    interface NotificationOwner {
+        UUID getNotificationId();
+        UUID getUserId();
+    }
+
+    List<NotificationOwner> findByNotificationIdIn(Collection<UUID> notificationIds);
 }
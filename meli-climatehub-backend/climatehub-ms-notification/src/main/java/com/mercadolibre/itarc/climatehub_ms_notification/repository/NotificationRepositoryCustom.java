@@ -0,0 +1,15 @@
+package com.mercadolibre.itarc.climatehub_ms_notification.repository;
+
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
+
+import java.util.Collection;
+
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Grava o status das notificações num único batch JDBC, sem carregar as entidades
+     * no contexto de persistência. Notificações inexistentes são ignoradas.
+     * @return quantidade de atualizações enviadas no batch
+     */
+    int batchUpdateStatus(Collection<NotificationStatusUpdateDTO> updates);
+}
@@ -0,0 +1,37 @@
+package com.mercadolibre.itarc.climatehub_ms_notification.repository;
+
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    private static final String UPDATE_STATUS_SQL =
+        " UPDATE notification SET status = ? WHERE notification_id = ? ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public NotificationRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public int batchUpdateStatus(Collection<NotificationStatusUpdateDTO> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, updates, batchSize, (ps, update) -> {
+            ps.setString(1, update.getStatus().name());
+            ps.setObject(2, update.getNotificationId());
+        });
+        return updates.size();
+    }
+}
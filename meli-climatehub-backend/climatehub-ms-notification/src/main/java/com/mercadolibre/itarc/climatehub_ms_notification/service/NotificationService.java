@@ -3,10 +3,13 @@ package com.mercadolibre.itarc.climatehub_ms_notification.service;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationRequest;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationResponse;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface NotificationService {
     NotificationResponse scheduleNotification(NotificationRequest request);
     void updateStatus(UUID notificationId, NotificationStatusDTO statusDTO);
+    void updateStatuses(List<NotificationStatusUpdateDTO> updates);
 }
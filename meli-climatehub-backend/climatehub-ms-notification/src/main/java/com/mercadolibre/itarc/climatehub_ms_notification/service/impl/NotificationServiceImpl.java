@@ -5,10 +5,12 @@ import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.CityRequestDT
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationRequest;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationResponse;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.entity.NotificationEntity;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.mapper.NotificationMapper;
 import com.mercadolibre.itarc.climatehub_ms_notification.producer.NotificationProducer;
 import com.mercadolibre.itarc.climatehub_ms_notification.repository.NotificationRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification.repository.NotificationRepository.NotificationOwner;
 import com.mercadolibre.itarc.climatehub_ms_notification.service.NotificationService;
 import com.mercadolibre.itarc.climatehub_ms_notification.service.SseService;
 import com.mercadolibre.itarc.climatehub_ms_notification.service.TokenService;
@@ -18,11 +20,17 @@ import com.mercadolibre.itarc.climatehub_ms_notification.validator.notification.
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -104,6 +112,51 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    /**
+     * Aplica o lote num único batch JDBC dentro de uma transação. O SSE só é enviado após o
+     * commit, para que o usuário nunca veja um status que acabou revertido.
+     */
+    @Override
+    @Transactional
+    public void updateStatuses(List<NotificationStatusUpdateDTO> updates) {
+        // Se a mesma notificação vier mais de uma vez, vale a última atualização
+        Map<UUID, NotificationStatusUpdateDTO> byId = new LinkedHashMap<>();
+        updates.forEach(update -> byId.put(update.getNotificationId(), update));
+
+        List<NotificationOwner> owners = notificationRepository.findByNotificationIdIn(byId.keySet());
+        if (owners.size() < byId.size()) {
+            log.warn("{} de {} notificações não encontradas na atualização de status em lote",
+                    byId.size() - owners.size(), byId.size());
+        }
+
+        notificationRepository.batchUpdateStatus(byId.values());
+
+        afterCommit(() -> {
+            for (NotificationOwner owner : owners) {
+                if (sseService.hasEmitter(owner.getUserId())) {
+                    NotificationStatusUpdateDTO update = byId.get(owner.getNotificationId());
+                    sseService.sendNotification(owner.getUserId(), NotificationStatusDTO.builder()
+                            .status(update.getStatus())
+                            .message(update.getMessage())
+                            .build());
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private LocalDateTime calculateNextExecution(NotificationRequest request) {
         return switch (request.scheduleType()) {
             case ONCE -> request.executeAt();
@@ -0,0 +1,105 @@
+package com.mercadolibre.itarc.climatehub_ms_notification.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.itarc.climatehub_ms_notification.constants.NotificationStatus;
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationStatusListener Tests")
+class NotificationStatusListenerTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NotificationStatusListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new NotificationStatusListener(notificationService, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o lote numa única atualização, descartando eventos inválidos")
+    void deveAplicarLoteDescartandoInvalidos() throws Exception {
+        NotificationStatusUpdateDTO executed = update(NotificationStatus.EXECUTED);
+        NotificationStatusUpdateDTO failed = update(NotificationStatus.FAILED);
+
+        listener.receiveStatuses(List.of(message(executed), raw("{invalido"), message(failed)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationStatusUpdateDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(1)).updateStatuses(captor.capture());
+        assertEquals(List.of(executed, failed), captor.getValue());
+    }
+
+    @Test
+    @DisplayName("Deve descartar eventos sem notificação ou status")
+    void deveDescartarEventosIncompletos() throws Exception {
+        NotificationStatusUpdateDTO valid = update(NotificationStatus.EXECUTED);
+        NotificationStatusUpdateDTO withoutStatus = update(null);
+
+        listener.receiveStatuses(List.of(message(valid), message(withoutStatus)));
+
+        verify(notificationService).updateStatuses(List.of(valid));
+    }
+
+    @Test
+    @DisplayName("Deve propagar falhas ao gravar para que o lote volte à fila")
+    void devePropagarFalhaAoGravar() throws Exception {
+        NotificationStatusUpdateDTO first = update(NotificationStatus.EXECUTED);
+        NotificationStatusUpdateDTO second = update(NotificationStatus.FAILED);
+
+        doThrow(new DataAccessResourceFailureException("banco indisponível"))
+                .when(notificationService).updateStatuses(anyList());
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> listener.receiveStatuses(List.of(message(first), message(second))));
+
+        verify(notificationService, times(1)).updateStatuses(anyList());
+    }
+
+    @Test
+    @DisplayName("Não deve chamar o serviço quando nenhum evento é válido")
+    void naoDeveChamarServicoSemEventosValidos() {
+        listener.receiveStatuses(List.of(raw("nao-e-json")));
+
+        verifyNoInteractions(notificationService);
+    }
+
+    private static NotificationStatusUpdateDTO update(NotificationStatus status) {
+        return NotificationStatusUpdateDTO.builder()
+                .notificationId(UUID.randomUUID())
+                .status(status)
+                .message("Evento do worker")
+                .build();
+    }
+
+    private Message message(NotificationStatusUpdateDTO update) throws Exception {
+        return new Message(objectMapper.writeValueAsBytes(update), new MessageProperties());
+    }
+
+    private static Message raw(String body) {
+        return new Message(body.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+}
@@ -6,10 +6,12 @@ import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.CityRequestDT
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationRequest;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationResponse;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusDTO;
+import com.mercadolibre.itarc.climatehub_ms_notification.model.dto.NotificationStatusUpdateDTO;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.entity.NotificationEntity;
 import com.mercadolibre.itarc.climatehub_ms_notification.model.mapper.NotificationMapper;
 import com.mercadolibre.itarc.climatehub_ms_notification.producer.NotificationProducer;
 import com.mercadolibre.itarc.climatehub_ms_notification.repository.NotificationRepository;
+import com.mercadolibre.itarc.climatehub_ms_notification.service.SseService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,15 +20,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +48,9 @@ class NotificationServiceImplTest {
     @Mock
     private NotificationProducer notificationProducer;
 
+    @Mock
+    private SseService sseService;
+
     @InjectMocks
     private NotificationServiceImpl notificationService;
 
@@ -201,6 +210,70 @@ class NotificationServiceImplTest {
             verify(notificationRepository).findById(notificationId);
             verify(notificationRepository, never()).save(any());
         }
+
+        @Test
+        @DisplayName("Deve atualizar status em lote num único batch, valendo a última atualização de cada notificação")
+        void success_updateStatuses() {
+            UUID executedId = UUID.randomUUID();
+            UUID failedId = UUID.randomUUID();
+            UUID missingId = UUID.randomUUID();
+
+            NotificationStatusUpdateDTO executed = new NotificationStatusUpdateDTO(executedId, NotificationStatus.EXECUTED, "ok");
+            NotificationStatusUpdateDTO failed = new NotificationStatusUpdateDTO(failedId, NotificationStatus.FAILED, "Cidade não encontrada");
+            NotificationStatusUpdateDTO missing = new NotificationStatusUpdateDTO(missingId, NotificationStatus.EXECUTED, "ok");
+
+            when(notificationRepository.findByNotificationIdIn(any()))
+                    .thenReturn(List.of(owner(executedId), owner(failedId)));
+            when(sseService.hasEmitter(userId)).thenReturn(false);
+
+            notificationService.updateStatuses(List.of(
+                    new NotificationStatusUpdateDTO(executedId, NotificationStatus.FAILED, "primeira tentativa"),
+                    executed, failed, missing));
+
+            verify(notificationRepository).batchUpdateStatus(argThat(batch ->
+                    List.copyOf(batch).equals(List.of(executed, failed, missing))));
+            verify(notificationRepository, never()).findAllById(any());
+            verify(notificationRepository, never()).saveAll(any());
+            verify(notificationRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Deve enviar o SSE da atualização em lote somente após o commit")
+        void success_updateStatuses_sseAfterCommit() {
+            UUID notificationId = UUID.randomUUID();
+            when(notificationRepository.findByNotificationIdIn(any())).thenReturn(List.of(owner(notificationId)));
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                notificationService.updateStatuses(List.of(
+                        new NotificationStatusUpdateDTO(notificationId, NotificationStatus.EXECUTED, "ok")));
+
+                verify(notificationRepository).batchUpdateStatus(any());
+                verifyNoInteractions(sseService);
+
+                when(sseService.hasEmitter(userId)).thenReturn(true);
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(sseService).sendNotification(eq(userId), argThat(data ->
+                    ((NotificationStatusDTO) data).getStatus() == NotificationStatus.EXECUTED));
+        }
+    }
+
+    private NotificationRepository.NotificationOwner owner(UUID notificationId) {
+        return new NotificationRepository.NotificationOwner() {
+            @Override
+            public UUID getNotificationId() {
+                return notificationId;
+            }
+
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+        };
     }
 
     @Nested